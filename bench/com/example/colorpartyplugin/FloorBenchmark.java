@@ -0,0 +1,501 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * FloorBenchmark times the floor code paths without a server, so a change to them can be
+ * judged by numbers instead of TPS graphs:
+ *
+ * - every BuildVariations generator (FloorVariation.generate)
+ * - the two floor loaders: designer JSON (FloorLayoutParser) and .cpfloor (FloorFormat)
+ * - Arena.removeUnsafeBlocks, Arena.safeTileTarget (teleportPlayerToSafeTile)
+ * - one rolling colors step (CrazyEffectManager.shiftFloorEast) and a color bomb splash
+ *
+ * The world operations run through a real FloorWriter, FloorState and DirtyRegion against a
+ * MemoryWorld, an in-memory stand-in for the arena's floor and the layer above it. Like
+ * CraftWorld it hands out a new Block for every getBlockAt(), so allocations are comparable.
+ *
+ * Every benchmark runs in a JVM of its own, forked the way JMH does it, so one benchmark's JIT
+ * profile and garbage don't change the next one's numbers, and the stand-in Server (see
+ * MemoryServer) only ever exists in that JVM. There it gets warm-up rounds, then measured
+ * rounds of a fixed duration. Calls are timed in batches: the batch grows until one takes at
+ * least BATCH_NANOS, so the two System.nanoTime() calls around it don't count even for calls
+ * well under a microsecond. What a call needs first (a fresh floor for removeUnsafeBlocks) is
+ * prepared for the whole batch before the clock starts. Results go into a Blackhole, so the JIT
+ * can't drop the work. Reported are throughput, average time and bytes allocated per call, the
+ * latter from the JVM's per-thread allocation counter (like JMH's -prof gc).
+ *
+ * Each benchmark is called once before it is timed. If that needs a World, Block or Server
+ * method the stand-ins don't answer, the benchmark is listed as skipped and the rest still run.
+ *
+ * It lives under bench/, next to the plugin sources but not in the plugin jar:
+ *
+ *   javac -cp ColorPartyPlugin.jar:spigot-api.jar -d bench-classes bench/com/example/colorpartyplugin/*.java
+ *   java -cp bench-classes:ColorPartyPlugin.jar:spigot-api.jar:gson-2.9.1.jar com.example.colorpartyplugin.FloorBenchmark
+ *        [filter] [measure-ms=1000] [forks=1]
+ *
+ * With a filter only benchmarks whose name contains it are run, e.g. "generate" or "splash".
+ * forks=0 runs them all in this JVM, which is quicker but lets them affect each other.
+ */
+public class FloorBenchmark {
+
+    private static final int START_X = -32;
+    private static final int START_Z = -32;
+    private static final int FLOOR_Y = Arena.FLOOR_Y;
+    private static final int SIZE = Arena.FLOOR_SIZE;
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+    // A timed batch takes at least this long, so the clock reads are noise
+    private static final long BATCH_NANOS = 1_000_000L;
+    // Fresh floors kept for benchmarks that use one up per call
+    private static final int FLOOR_POOL = 64;
+
+    // Argument that makes main() run one benchmark in a forked JVM
+    private static final String FORK = "--fork";
+
+    // One operation, called `calls` times per timed batch
+    interface Benchmark {
+        // Untimed, before a batch: whatever each of its calls needs first
+        default void prepare(int calls) {
+        }
+
+        // The batch size doesn't grow past this, e.g. the number of floors prepare() can set up
+        default int maxBatch() {
+            return Integer.MAX_VALUE;
+        }
+
+        // Call i of the batch
+        Object run(int i) throws Exception;
+    }
+
+    record Result(String name, long calls, double callsPerSecond, double callsPerSecondError,
+                  double nanosPerCall, double bytesPerCall, int batch) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-36s %12.0f +- %9.0f ops/s %12.3f us/op %12.0f B/op %8d",
+                    name, callsPerSecond, callsPerSecondError, nanosPerCall / 1e3, bytesPerCall, batch);
+        }
+    }
+
+    private final long measureNanos;
+    private final Blackhole blackhole = new Blackhole();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public FloorBenchmark(long measureMillis) {
+        this.measureNanos = measureMillis * 1_000_000L;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals(FORK)) {
+            runFork(args[1], Long.parseLong(args[2]));
+            return;
+        }
+        String filter = args.length > 0 ? args[0] : "";
+        long measureMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int forks = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        System.out.printf(Locale.ROOT, "%-36s %28s %15s %15s %8s%n", "Benchmark", "Throughput", "Average", "Allocated", "Batch");
+        FloorBenchmark bench = forks > 0 ? null : new FloorBenchmark(measureMillis);
+        if (bench != null) {
+            MemoryServer.install();
+        }
+        for (var entry : benchmarks()) {
+            if (!entry.getKey().contains(filter)) continue;
+            if (bench != null) {
+                System.out.println(bench.measure(entry.getKey(), entry.getValue().get()));
+                continue;
+            }
+            for (int i = 0; i < forks; i++) {
+                fork(entry.getKey(), measureMillis);
+            }
+        }
+    }
+
+    // Runs one benchmark in a new JVM with this JVM's classpath and options, its row goes to our output
+    private static void fork(String name, long measureMillis) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(FloorBenchmark.class.getName());
+        command.add(FORK);
+        command.add(name);
+        command.add(Long.toString(measureMillis));
+        int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (exit != 0) {
+            System.out.printf(Locale.ROOT, "%-36s failed, the forked JVM exited with %d%n", name, exit);
+        }
+    }
+
+    private static void runFork(String name, long measureMillis) throws Exception {
+        MemoryServer.install();
+        for (var entry : benchmarks()) {
+            if (entry.getKey().equals(name)) {
+                System.out.println(new FloorBenchmark(measureMillis).measure(name, entry.getValue().get()));
+                return;
+            }
+        }
+        throw new IllegalArgumentException("No benchmark called " + name);
+    }
+
+    // Name -> how to set the benchmark up. Only the JVM that runs one builds it.
+    static List<Map.Entry<String, Supplier<Benchmark>>> benchmarks() throws IOException {
+        List<Map.Entry<String, Supplier<Benchmark>>> list = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(42);
+
+        // Generators
+        FloorVariationRegistry registry = new FloorVariationRegistry();
+        BuildVariations.registerVariations(registry);
+        for (FloorVariation variation : registry.getVariations()) {
+            // File-backed variations only hand out a loaded layout, the loaders are measured below
+            if (variation.isFileBacked()) continue;
+            list.add(Map.entry("generate." + variation.getId(), () -> i -> variation.generate(random)));
+        }
+
+        // Loaders, from memory so disk speed doesn't count
+        String floorName = "floor_hearts";
+        String json = new String(readResource(floorName + FloorFormat.JSON_EXTENSION), StandardCharsets.UTF_8);
+        byte[] binary = readResource(floorName + FloorFormat.EXTENSION);
+        list.add(Map.entry("load.json", () -> i -> FloorLayout.fromDesignerCells(
+                FloorLayoutParser.parse(new StringReader(json), floorName).getCells())));
+        list.add(Map.entry("load.cpfloor", () -> i -> FloorLayout.fromDesignerCells(
+                FloorFormat.decode(ByteBuffer.wrap(binary), floorName))));
+
+        // World operations on a designer floor
+        FloorLayout layout = FloorLayout.fromDesignerCells(FloorFormat.decode(ByteBuffer.wrap(binary), floorName));
+        Material safe = layout.pickColor(random);
+        list.add(Map.entry("removeUnsafeBlocks", () -> new Benchmark() {
+            // Each call removes the unsafe tiles of a floor that still has them
+            final ArenaFloor[] floors = new ArenaFloor[FLOOR_POOL];
+
+            @Override
+            public void prepare(int calls) {
+                for (int i = 0; i < calls; i++) {
+                    if (floors[i] == null) {
+                        floors[i] = new ArenaFloor();
+                    }
+                    floors[i].apply(layout);
+                }
+            }
+
+            @Override
+            public int maxBatch() {
+                return FLOOR_POOL;
+            }
+
+            @Override
+            public Object run(int i) {
+                ArenaFloor arena = floors[i];
+                Arena.removeUnsafeBlocks(arena.writer, arena.state, arena.world, START_X, FLOOR_Y, START_Z, safe);
+                return arena.state;
+            }
+        }));
+        list.add(Map.entry("teleportPlayerToSafeTile", () -> {
+            ArenaFloor arena = new ArenaFloor().apply(layout);
+            ClientFloorRenderer renderer = new ClientFloorRenderer(null, arena.writer, false, arena.state, List::of);
+            return i -> Arena.safeTileTarget(renderer, arena.world, START_X, FLOOR_Y, START_Z, safe, random);
+        }));
+        list.add(Map.entry("rollingColors.shift", () -> {
+            // The floor just keeps rolling, every step moves as many blocks as the one before
+            ArenaFloor arena = new ArenaFloor().apply(layout);
+            return i -> {
+                CrazyEffectManager.shiftFloorEast(arena.writer, arena.world, SIZE, START_X, START_Z, FLOOR_Y);
+                return arena.state;
+            };
+        }));
+        list.add(Map.entry("splashColorBomb", () -> new Benchmark() {
+            final ArenaFloor arena = new ArenaFloor().apply(layout);
+            int[] ix = new int[0];
+            int[] iz = new int[0];
+
+            @Override
+            public void prepare(int calls) {
+                if (ix.length < calls) {
+                    ix = new int[calls];
+                    iz = new int[calls];
+                }
+                // Bombs skip the outer 5 blocks, like the withers' targets
+                for (int i = 0; i < calls; i++) {
+                    ix[i] = START_X + 5 + random.nextInt(SIZE - 10);
+                    iz[i] = START_Z + 5 + random.nextInt(SIZE - 10);
+                }
+            }
+
+            @Override
+            public Object run(int i) {
+                CrazyEffectManager.splashColorBomb(arena.writer, arena.world, ix[i], iz[i], FLOOR_Y, SIZE,
+                        START_X, START_Z, random);
+                return arena.state;
+            }
+        }));
+        return list;
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream in = FloorBenchmark.class.getResourceAsStream("/" + name)) {
+            if (in == null) {
+                throw new IOException(name + " is not on the classpath");
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    // The result row, or why the benchmark was skipped
+    public String measure(String name, Benchmark benchmark) throws Exception {
+        try {
+            benchmark.prepare(1);
+            blackhole.consume(benchmark.run(0));
+        } catch (UnsupportedOperationException e) {
+            return String.format(Locale.ROOT, "%-36s skipped, the in-memory stand-ins don't answer %s", name, e.getMessage());
+        }
+
+        int batch = calibrate(benchmark, 1);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round(benchmark, batch);
+        }
+        // Warmed-up code may be fast enough that the batch needs to grow again
+        batch = calibrate(benchmark, batch);
+
+        double[] rates = new double[MEASURE_ROUNDS];
+        long calls = 0;
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long[] round = round(benchmark, batch);
+            rates[i] = round[0] / (round[1] / 1e9);
+            calls += round[0];
+            nanos += round[1];
+            bytes += round[2];
+        }
+        double mean = Arrays.stream(rates).average().orElse(0);
+        double variance = Arrays.stream(rates).map(r -> (r - mean) * (r - mean)).sum() / Math.max(1, MEASURE_ROUNDS - 1);
+        return new Result(name, calls, mean, Math.sqrt(variance), nanos / (double) calls, bytes / (double) calls, batch)
+                .toString();
+    }
+
+    // Doubles the batch size from `from` until a batch takes BATCH_NANOS, or maxBatch() is reached
+    private int calibrate(Benchmark benchmark, int from) throws Exception {
+        int batch = Math.min(from, benchmark.maxBatch());
+        while (batch < benchmark.maxBatch() && batch(benchmark, batch)[0] < BATCH_NANOS) {
+            batch = (int) Math.min(benchmark.maxBatch(), batch * 2L);
+        }
+        return batch;
+    }
+
+    // Runs batches until measureNanos of timed calls are done. Returns {calls, nanos, bytes}.
+    private long[] round(Benchmark benchmark, int batch) throws Exception {
+        long calls = 0;
+        long nanos = 0;
+        long bytes = 0;
+        while (nanos < measureNanos) {
+            long[] timed = batch(benchmark, batch);
+            nanos += timed[0];
+            bytes += timed[1];
+            calls += batch;
+        }
+        return new long[]{calls, nanos, bytes};
+    }
+
+    // One prepared batch of calls, timed as a whole. Returns {nanos, bytes}.
+    private long[] batch(Benchmark benchmark, int calls) throws Exception {
+        benchmark.prepare(calls);
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            blackhole.consume(benchmark.run(i));
+        }
+        long nanos = System.nanoTime() - start;
+        return new long[]{nanos, threads.getCurrentThreadAllocatedBytes() - allocated};
+    }
+
+    /**
+     * Takes every result so the JIT can't treat the call as dead code, the way JMH's Blackhole
+     * does: a result is only kept when a pseudo-random number hits a mask that widens each time,
+     * which the JIT can't rule out, and otherwise costs a multiply and a branch.
+     */
+    static final class Blackhole {
+        private int seed = (int) System.nanoTime();
+        private int mask = 1;
+        private Object kept;
+
+        void consume(Object result) {
+            int next = seed * 1664525 + 1013904223;
+            seed = next;
+            if ((next & mask) == 0) {
+                kept = result;
+                mask = (mask << 1) + 1;
+            }
+        }
+    }
+
+    /** One arena floor in a MemoryWorld, wired up the way Arena wires it to the plugin's FloorWriter. */
+    static final class ArenaFloor {
+        final World world = new MemoryWorld("benchmark", START_X, FLOOR_Y, START_Z, SIZE, 2, SIZE).asWorld();
+        // Large enough that every batch is written right away, no scheduler needed
+        final FloorWriter writer = new FloorWriter(null, Integer.MAX_VALUE);
+        final FloorState state = new FloorState(START_X, FLOOR_Y, START_Z);
+        final DirtyRegion dirtyRegion = new DirtyRegion(START_X, START_Z, START_X + SIZE - 1, START_Z + SIZE - 1);
+
+        ArenaFloor() {
+            writer.addFloorState(state);
+            writer.addDirtyRegion(dirtyRegion);
+            state.capture(world);
+            dirtyRegion.start(world);
+        }
+
+        ArenaFloor apply(FloorLayout layout) {
+            FloorWriter.Batch batch = writer.batch(world);
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    batch.add(START_X + x, FLOOR_Y, START_Z + z, layout.getMaterial(x, z));
+                }
+            }
+            batch.submit();
+            return this;
+        }
+    }
+
+    /**
+     * A box of blocks in memory that answers the World and Block calls the floor code makes
+     * (getBlockAt, getType, setBlockData, coordinates). Everything outside the box is AIR and
+     * ignores writes. Other World methods throw UnsupportedOperationException.
+     */
+    static final class MemoryWorld {
+        private final String name;
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        private final Material[] blocks;
+        private final World world;
+
+        MemoryWorld(String name, int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ) {
+            this.name = name;
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.blocks = new Material[sizeX * sizeY * sizeZ];
+            Arrays.fill(blocks, Material.AIR);
+            this.world = (World) Proxy.newProxyInstance(World.class.getClassLoader(), new Class<?>[]{World.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getBlockAt" -> block((Integer) args[0], (Integer) args[1], (Integer) args[2]);
+                        case "getName" -> this.name;
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "toString" -> "MemoryWorld{" + this.name + "}";
+                        default -> throw new UnsupportedOperationException("World." + method.getName());
+                    });
+        }
+
+        private int index(int x, int y, int z) {
+            int lx = x - minX;
+            int ly = y - minY;
+            int lz = z - minZ;
+            if (lx < 0 || lx >= sizeX || ly < 0 || ly >= sizeY || lz < 0 || lz >= sizeZ) return -1;
+            return (ly * sizeX + lx) * sizeZ + lz;
+        }
+
+        private Block block(int x, int y, int z) {
+            return (Block) Proxy.newProxyInstance(Block.class.getClassLoader(), new Class<?>[]{Block.class},
+                    (proxy, method, args) -> {
+                        int i = index(x, y, z);
+                        return switch (method.getName()) {
+                            case "getType" -> i < 0 ? Material.AIR : blocks[i];
+                            case "setType" -> {
+                                if (i >= 0) blocks[i] = (Material) args[0];
+                                yield null;
+                            }
+                            case "setBlockData" -> {
+                                if (i >= 0) blocks[i] = ((BlockData) args[0]).getMaterial();
+                                yield null;
+                            }
+                            case "getX" -> x;
+                            case "getY" -> y;
+                            case "getZ" -> z;
+                            case "getWorld" -> world;
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "toString" -> "Block{" + x + "," + y + "," + z + "}";
+                            default -> throw new UnsupportedOperationException("Block." + method.getName());
+                        };
+                    });
+        }
+
+        World asWorld() {
+            return world;
+        }
+    }
+
+    /**
+     * The parts of Server the floor code needs outside a server: Material.createBlockData()
+     * (the FloorWriter caches one BlockData per Material) and the logger Bukkit.setServer() uses.
+     * Only installed in the JVM that runs the benchmarks, Bukkit's server can only be set once.
+     */
+    static final class MemoryServer {
+
+        static void install() {
+            if (Bukkit.getServer() != null) return;
+            Logger logger = Logger.getLogger("FloorBenchmark");
+            InvocationHandler handler = (proxy, method, args) -> switch (method.getName()) {
+                case "getLogger" -> logger;
+                case "getName" -> "FloorBenchmark";
+                case "getVersion", "getBukkitVersion" -> "in-memory";
+                case "createBlockData" -> {
+                    if (args.length == 1 && args[0] instanceof Material material) {
+                        yield blockData(material);
+                    }
+                    throw new UnsupportedOperationException("Server.createBlockData" + Arrays.toString(args));
+                }
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "MemoryServer";
+                default -> throw new UnsupportedOperationException("Server." + method.getName());
+            };
+            Bukkit.setServer((Server) Proxy.newProxyInstance(Server.class.getClassLoader(),
+                    new Class<?>[]{Server.class}, handler));
+        }
+
+        private static BlockData blockData(Material material) {
+            return (BlockData) Proxy.newProxyInstance(BlockData.class.getClassLoader(), new Class<?>[]{BlockData.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "getMaterial" -> material;
+                        case "clone" -> proxy;
+                        case "equals" -> proxy == args[0];
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "toString" -> "BlockData{" + material + "}";
+                        default -> throw new UnsupportedOperationException("BlockData." + method.getName());
+                    });
+        }
+    }
+}
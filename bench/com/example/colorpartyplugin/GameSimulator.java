@@ -0,0 +1,473 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Material;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * GameSimulator plays Color Party games without a server, to measure how fast the round and
+ * floor logic is and to see how the round timings play out.
+ *
+ * Every simulated game is played by the same RoundRules as an Arena, on a virtual clock
+ * (RoundEngine.step()): the phases, their timings, the round's floor and its safe color come
+ * from there. The floor only exists as a FloorLayout, and instead of Players there are scripted
+ * virtual players: when the color is called, each one reacts after a while and walks to the
+ * nearest tile of the color it believes is safe. A player survives the freeze if the tile under
+ * them is the safe color. Powerups and crazy mode effects are not simulated.
+ *
+ * Round for round, a game here with seed S gets the floors and safe colors of a server game
+ * with seed S, as long as the server has only the built-in variations (extra floors from the
+ * floor library change the picks). How many rounds are played, and who falls when, depends on
+ * the players, so a replay with /cp seed only shows the same floors.
+ *
+ * The report has the elimination curve over the 25 rounds, how deadly each variation is, the
+ * handler time per phase (RoundEngine.getPhaseNanos) and the seed of the slowest game.
+ *
+ * It lives under bench/, next to the plugin sources but not in the plugin jar:
+ *
+ *   javac -cp ColorPartyPlugin.jar:spigot-api.jar -d bench-classes bench/com/example/colorpartyplugin/*.java
+ *   java -cp bench-classes:ColorPartyPlugin.jar:spigot-api.jar com.example.colorpartyplugin.GameSimulator
+ *        [games=10000] [players=8] [seed=random] [threads=all cores]
+ *
+ * Only Bukkit's Material enum is used, nothing that needs a running server.
+ */
+public class GameSimulator {
+
+    private static final int SIZE = FloorLayout.SIZE;
+
+    // A kind of virtual player: how many ticks it needs to react to the call, how fast it moves
+    // (blocks per tick, 0.216 walking, 0.28 sprinting) and how often it goes for a wrong color
+    record Profile(String name, int minReactionTicks, int maxReactionTicks, double speed, double misjudge) {
+    }
+
+    static final Profile[] PROFILES = {
+            new Profile("casual", 8, 16, 0.216, 0.08),
+            new Profile("regular", 5, 10, 0.28, 0.03),
+            new Profile("expert", 3, 6, 0.28, 0.01)
+    };
+
+    private final FloorVariationRegistry registry = new FloorVariationRegistry();
+    private final int playersPerGame;
+
+    public GameSimulator(List<FloorVariation> variations, int playersPerGame) {
+        for (FloorVariation variation : variations) {
+            registry.register(variation);
+        }
+        this.playersPerGame = playersPerGame;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : GameRandom.newSeed();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        GameSimulator simulator = new GameSimulator(builtInVariations(), players);
+        // One untimed pass so the report isn't mostly JIT warm-up
+        simulator.run(Math.min(games, 500), seed + 1, threads);
+        Stats stats = simulator.run(games, seed, threads);
+        System.out.println("Simulated " + games + " games with " + players + " players (seed " + seed + ") on "
+                + threads + " thread(s):");
+        System.out.print(stats.describe());
+    }
+
+    // The built-in variations, with the designer floors read from the plugin jar
+    public static List<FloorVariation> builtInVariations() throws IOException {
+        FloorVariationRegistry registry = new FloorVariationRegistry();
+        BuildVariations.registerVariations(registry);
+        List<FloorVariation> list = new ArrayList<>();
+        for (FloorVariation variation : registry.getVariations()) {
+            if (!variation.isFileBacked()) {
+                list.add(variation);
+                continue;
+            }
+            // Outside the server there is no FloorLibrary, so the layout is loaded once here
+            FloorLayout layout = readBuiltInFloor(variation.getId());
+            list.add(new FloorVariation.Simple(variation.getId(), variation.getWeight(), variation.getCost(),
+                    true, random -> layout));
+        }
+        return list;
+    }
+
+    private static FloorLayout readBuiltInFloor(String floorName) throws IOException {
+        String resource = "/" + floorName + FloorFormat.EXTENSION;
+        try (InputStream in = GameSimulator.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException(resource + " is not on the classpath");
+            }
+            return FloorLayout.fromDesignerCells(FloorFormat.decode(ByteBuffer.wrap(in.readAllBytes()), floorName));
+        }
+    }
+
+    // Runs games split over threads. Game i uses the i-th seed drawn from seed, so the result
+    // doesn't depend on the number of threads.
+    public Stats run(int games, long seed, int threads) throws Exception {
+        long[] seeds = new long[games];
+        SplittableRandom seedSource = new SplittableRandom(seed);
+        for (int i = 0; i < games; i++) {
+            seeds[i] = seedSource.nextLong();
+        }
+
+        long startNanos = System.nanoTime();
+        Stats total = new Stats();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Stats>> parts = new ArrayList<>();
+            int chunk = Math.max(1, (games + threads - 1) / Math.max(1, threads));
+            for (int from = 0; from < games; from += chunk) {
+                int start = from;
+                int end = Math.min(games, from + chunk);
+                parts.add(executor.submit(() -> {
+                    Stats stats = new Stats();
+                    for (int i = start; i < end; i++) {
+                        playGame(seeds[i], stats);
+                    }
+                    return stats;
+                }));
+            }
+            for (Future<Stats> part : parts) {
+                total.add(part.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        total.wallNanos = System.nanoTime() - startNanos;
+        return total;
+    }
+
+    // Plays one game to the end and adds it to stats
+    public void playGame(long seed, Stats stats) {
+        SimulatedGame game = new SimulatedGame(seed, registry, playersPerGame);
+        long startNanos = System.nanoTime();
+        game.play();
+        long nanos = System.nanoTime() - startNanos;
+        stats.addGame(game, nanos, seed);
+    }
+
+    /** One game: the RoundRules callbacks, the floor and the virtual players. */
+    static final class SimulatedGame implements RoundRules.Game {
+
+        private final RoundRules rules;
+        // The players' own decisions, not part of GameRandom
+        private final SplittableRandom behavior;
+        private final List<VirtualPlayer> alive = new ArrayList<>();
+
+        private FloorLayout floor = FloorLayout.LIGHT_GRAY;
+        private int winners = 0;
+
+        // [round] = players that fell in that round, and players still in after it
+        final int[] eliminated = new int[RoundRules.MAX_ROUNDS + 1];
+        final int[] remaining = new int[RoundRules.MAX_ROUNDS + 1];
+        // Variation id and players that fell, per round
+        final List<String> roundVariations = new ArrayList<>();
+        final List<double[]> roundDeaths = new ArrayList<>();
+        long moveNanos = 0;
+
+        SimulatedGame(long seed, FloorVariationRegistry registry, int players) {
+            GameRandom random = new GameRandom(seed);
+            this.behavior = new SplittableRandom(~seed);
+            // No plugin: virtual clock, and the floors are generated right on this thread
+            this.rules = new RoundRules(null, this, registry, Runnable::run);
+            rules.newGame(random);
+            // Spread like Arena.floorSpawn, on the 8 spots around the center
+            int[][] offsets = ColorPartyNPCListener.SPAWN_OFFSETS;
+            for (int i = 0; i < players; i++) {
+                int[] offset = offsets[random.spawns().nextInt(offsets.length)];
+                alive.add(new VirtualPlayer(PROFILES[i % PROFILES.length],
+                        SIZE / 2 + offset[0] + 0.5, SIZE / 2 + offset[1] + 0.5));
+            }
+        }
+
+        void play() {
+            RoundEngine engine = rules.getEngine();
+            rules.startCountdown(5);
+            while (engine.isRunning()) {
+                engine.step();
+                if (engine.getPhase() == RoundEngine.Phase.CALL) {
+                    long start = System.nanoTime();
+                    for (VirtualPlayer player : alive) {
+                        player.move();
+                    }
+                    moveNanos += System.nanoTime() - start;
+                }
+            }
+        }
+
+        @Override
+        public void onGameStart() {
+        }
+
+        @Override
+        public boolean hasPlayersLeft() {
+            return !alive.isEmpty();
+        }
+
+        @Override
+        public void onRound(int round, RoundRules.Floor next, int freezeCount) {
+            floor = next.layout();
+        }
+
+        @Override
+        public void onCall(Material safeColor) {
+            long[] safe = floor.getColorMask(FloorLayout.paletteIndex(safeColor));
+            for (VirtualPlayer player : alive) {
+                player.call(safe);
+            }
+        }
+
+        // Everyone not on a safe tile falls. If that is everyone left, they all win (as in Arena.onMove).
+        @Override
+        public void onFreeze(Material safeColor) {
+            int round = rules.getRound();
+            long[] safe = floor.getColorMask(FloorLayout.paletteIndex(safeColor));
+            List<VirtualPlayer> fell = new ArrayList<>();
+            for (VirtualPlayer player : alive) {
+                if (!player.isOn(safe)) {
+                    fell.add(player);
+                }
+            }
+            eliminated[round] = fell.size();
+            roundVariations.add(rules.getFloor().variationId());
+            roundDeaths.add(new double[]{fell.size(), alive.size()});
+            if (!fell.isEmpty() && fell.size() == alive.size()) {
+                winners = fell.size();
+                alive.clear();
+                rules.end();
+                return;
+            }
+            alive.removeAll(fell);
+            remaining[round] = alive.size();
+        }
+
+        @Override
+        public void onFinalRound() {
+            winners = alive.size();
+        }
+
+        int getRounds() {
+            return rules.getRound();
+        }
+
+        RoundEngine getEngine() {
+            return rules.getEngine();
+        }
+
+        /** A scripted player on the in-memory floor. */
+        final class VirtualPlayer {
+            private final Profile profile;
+            // Position in floor coordinates, 0..64
+            private double x;
+            private double z;
+            private int reactIn;
+            private double targetX;
+            private double targetZ;
+            private boolean hasTarget;
+
+            VirtualPlayer(Profile profile, double x, double z) {
+                this.profile = profile;
+                this.x = x;
+                this.z = z;
+            }
+
+            // The color was called: pick a tile to run to, maybe of the wrong color
+            void call(long[] safe) {
+                long[] mask = safe;
+                if (behavior.nextDouble() < profile.misjudge()) {
+                    int wrong = behavior.nextInt(FloorLayout.PALETTE.length);
+                    if (floor.getCount(wrong) > 0) {
+                        mask = floor.getColorMask(wrong);
+                    }
+                }
+                int tile = nearest(mask, (int) x, (int) z);
+                hasTarget = tile >= 0;
+                if (hasTarget) {
+                    targetX = tile / SIZE + 0.5;
+                    targetZ = tile % SIZE + 0.5;
+                }
+                reactIn = profile.minReactionTicks()
+                        + behavior.nextInt(profile.maxReactionTicks() - profile.minReactionTicks() + 1);
+            }
+
+            void move() {
+                if (!hasTarget) return;
+                if (reactIn > 0) {
+                    reactIn--;
+                    return;
+                }
+                double dx = targetX - x;
+                double dz = targetZ - z;
+                double distance = Math.sqrt(dx * dx + dz * dz);
+                if (distance <= profile.speed()) {
+                    x = targetX;
+                    z = targetZ;
+                    hasTarget = false;
+                } else {
+                    x += dx / distance * profile.speed();
+                    z += dz / distance * profile.speed();
+                }
+            }
+
+            boolean isOn(long[] mask) {
+                int tx = Math.min(SIZE - 1, Math.max(0, (int) x));
+                int tz = Math.min(SIZE - 1, Math.max(0, (int) z));
+                return (mask[tx] >>> tz & 1L) != 0;
+            }
+        }
+
+        // Closest set tile by walking square rings outwards, -1 if the mask is empty.
+        // On the first ring with a hit the closest by straight-line distance wins.
+        static int nearest(long[] mask, int px, int pz) {
+            for (int r = 0; r < SIZE; r++) {
+                int best = -1;
+                int bestDistance = Integer.MAX_VALUE;
+                for (int x = px - r; x <= px + r; x++) {
+                    if (x < 0 || x >= SIZE || mask[x] == 0) continue;
+                    boolean edge = x == px - r || x == px + r;
+                    for (int z = pz - r; z <= pz + r; z += edge ? 1 : Math.max(1, 2 * r)) {
+                        if (z < 0 || z >= SIZE || (mask[x] >>> z & 1L) == 0) continue;
+                        int distance = (x - px) * (x - px) + (z - pz) * (z - pz);
+                        if (distance < bestDistance) {
+                            bestDistance = distance;
+                            best = x * SIZE + z;
+                        }
+                    }
+                }
+                if (best >= 0) return best;
+            }
+            return -1;
+        }
+    }
+
+    /** What a batch of games added up to, merged across threads. */
+    public static final class Stats {
+        private int games = 0;
+        private long rounds = 0;
+        private long ticks = 0;
+        private long winners = 0;
+        private int fullGames = 0;
+        private long gameNanos = 0;
+        private long moveNanos = 0;
+        private long wallNanos = 0;
+        private long slowestNanos = -1;
+        private long slowestSeed = 0;
+        private final long[] remaining = new long[RoundRules.MAX_ROUNDS + 1];
+        private final long[] reached = new long[RoundRules.MAX_ROUNDS + 1];
+        private final long[] eliminated = new long[RoundRules.MAX_ROUNDS + 1];
+        private final Map<RoundEngine.Phase, long[]> phases = new EnumMap<>(RoundEngine.Phase.class);
+        // Variation id -> {rounds, players that fell, players that were in}
+        private final Map<String, double[]> variations = new TreeMap<>();
+
+        void addGame(SimulatedGame game, long nanos, long seed) {
+            games++;
+            rounds += game.getRounds();
+            ticks += game.getEngine().getTick();
+            winners += game.winners;
+            if (game.getRounds() >= RoundRules.MAX_ROUNDS) fullGames++;
+            gameNanos += nanos;
+            moveNanos += game.moveNanos;
+            if (nanos > slowestNanos) {
+                slowestNanos = nanos;
+                slowestSeed = seed;
+            }
+            for (int r = 1; r <= game.getRounds(); r++) {
+                reached[r]++;
+                remaining[r] += game.remaining[r];
+                eliminated[r] += game.eliminated[r];
+            }
+            for (RoundEngine.Phase phase : RoundEngine.Phase.values()) {
+                long[] cost = phases.computeIfAbsent(phase, p -> new long[2]);
+                cost[0] += game.getEngine().getPhaseNanos(phase);
+                cost[1] += game.getEngine().getPhaseTicks(phase);
+            }
+            for (int i = 0; i < game.roundVariations.size(); i++) {
+                double[] v = variations.computeIfAbsent(game.roundVariations.get(i), id -> new double[3]);
+                v[0]++;
+                v[1] += game.roundDeaths.get(i)[0];
+                v[2] += game.roundDeaths.get(i)[1];
+            }
+        }
+
+        void add(Stats other) {
+            games += other.games;
+            rounds += other.rounds;
+            ticks += other.ticks;
+            winners += other.winners;
+            fullGames += other.fullGames;
+            gameNanos += other.gameNanos;
+            moveNanos += other.moveNanos;
+            if (other.slowestNanos > slowestNanos) {
+                slowestNanos = other.slowestNanos;
+                slowestSeed = other.slowestSeed;
+            }
+            for (int r = 0; r <= RoundRules.MAX_ROUNDS; r++) {
+                remaining[r] += other.remaining[r];
+                reached[r] += other.reached[r];
+                eliminated[r] += other.eliminated[r];
+            }
+            other.phases.forEach((phase, cost) -> {
+                long[] mine = phases.computeIfAbsent(phase, p -> new long[2]);
+                mine[0] += cost[0];
+                mine[1] += cost[1];
+            });
+            other.variations.forEach((id, v) -> {
+                double[] mine = variations.computeIfAbsent(id, k -> new double[3]);
+                for (int i = 0; i < 3; i++) mine[i] += v[i];
+            });
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        public double getGamesPerSecond() {
+            return wallNanos == 0 ? 0 : games / (wallNanos / 1e9);
+        }
+
+        public String describe() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("  %.0f games/s, %.1f ms wall, %.1f us per game on one thread, %d virtual ticks (%.1f h of play)%n",
+                    getGamesPerSecond(), wallNanos / 1e6, gameNanos / 1e3 / Math.max(1, games), ticks,
+                    ticks / 20.0 / 3600.0));
+            sb.append(String.format("  %.2f rounds per game, %.1f%% of games reach round %d, %.2f winners per game%n",
+                    rounds / (double) Math.max(1, games), 100.0 * fullGames / Math.max(1, games), RoundRules.MAX_ROUNDS,
+                    winners / (double) Math.max(1, games)));
+
+            sb.append("  Players left after each round (average over the games that played it):\n");
+            for (int r = 1; r <= RoundRules.MAX_ROUNDS; r++) {
+                if (reached[r] == 0) break;
+                sb.append(String.format("    r%-2d %5.2f left, %5.2f fell, %5.1f%% of games%n", r,
+                        remaining[r] / (double) reached[r], eliminated[r] / (double) reached[r],
+                        100.0 * reached[r] / Math.max(1, games)));
+            }
+
+            sb.append("  Handler time per phase (RoundEngine):\n");
+            phases.forEach((phase, cost) -> {
+                if (cost[0] == 0 && cost[1] == 0) return;
+                sb.append(String.format("    %-12s %8.2f us per game, %6.0f ticks per game%n", phase,
+                        cost[0] / 1e3 / Math.max(1, games), cost[1] / (double) Math.max(1, games)));
+            });
+            sb.append(String.format("    %-12s %8.2f us per game%n", "players", moveNanos / 1e3 / Math.max(1, games)));
+
+            sb.append("  Share of players that fell, per variation:\n");
+            variations.entrySet().stream()
+                    .sorted((a, b) -> Double.compare(b.getValue()[1] / b.getValue()[2], a.getValue()[1] / a.getValue()[2]))
+                    .forEach(entry -> sb.append(String.format("    %-26s %5.1f%% of %d rounds%n", entry.getKey(),
+                            100.0 * entry.getValue()[1] / Math.max(1, entry.getValue()[2]), (long) entry.getValue()[0])));
+
+            sb.append(String.format("  Slowest game: %.2f ms, seed %d (/cp seed plays its floors on a server)%n",
+                    slowestNanos / 1e6, slowestSeed));
+            return sb.toString();
+        }
+    }
+}
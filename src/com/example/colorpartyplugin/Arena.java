@@ -0,0 +1,1190 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.Sound;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import com.xxmicloxx.NoteBlockAPI.model.Song;
+import com.xxmicloxx.NoteBlockAPI.songplayer.RadioSongPlayer;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.random.RandomGenerator;
+
+/**
+ * Arena is one Color Party game: a 64x64 dance floor at y=120 around its origin in
+ * colorpartyworld (or in a world of its own, see below), the players who joined it and
+ * everything a game needs of its own.
+ *
+ * Each arena owns its FloorState, DirtyRegion, BeaconRegistry, lighting, client-side floor
+ * renderer, powerup and crazy mode managers and the RoundRules that drive its rounds, so
+ * several games can run side by side (see ArenaManager). The FloorWriter, the floor library
+ * and the songs are shared through the plugin. The first arena has its origin at (0, 0),
+ * the geometry the plugin always used.
+ *
+ * With "arenas.own-worlds" each arena lives in its own void world (colorpartyworld_<id>), at
+ * the same origin it would have in the shared world. That world is only loaded when players
+ * need the arena (prepareWorld(), built from the arena snapshot or the startup template) and
+ * is unloaded without saving once the arena has been idle for a while (tickIdle()).
+ *
+ * The round cycle:
+ * 1) Full "round cycle" logic (up to 25 rounds).
+ * 2) Countdown, freeze countdown, random floor variations, safe color selection.
+ * 3) Powerups, beacons (3 beacons at 60% chance each round).
+ * 4) Multi-winner scenario if multiple players fall to their deaths at the same time.
+ * 5) Round 25 delay by 4 seconds after freeze before awarding final winners, to allow any last-second falls.
+ * 6) At the end of game, we set the floor to game over. Once the last player truly leaves, the arena
+ * is reset for the next game (handled in removePlayer).
+ * All methods must be called on the main thread.
+ */
+public class Arena implements RoundRules.Game {
+
+    public static final int FLOOR_SIZE = FloorLayout.SIZE;
+    public static final int FLOOR_Y = 120;
+
+    // Global static final fields for the void level, referencing the plugin's config
+    // This is used to detect if a player falls into the void (Y < 80)
+    private static final int VOID_LEVEL = ColorPartyPlugin.VOID_LEVEL;
+
+    // Rounds
+    static final int MAX_ROUNDS = RoundRules.MAX_ROUNDS;
+
+    // The cleared region of a full rebuild, around the origin
+    private static final int CLEAR_RADIUS = 34;
+    private static final int CLEAR_MIN_Y = 110;
+    private static final int CLEAR_MAX_Y = 130;
+
+    private final ColorPartyPlugin plugin;
+    private final int id;
+    // Center of the dance floor, the floor starts at origin - 32
+    private final int originX;
+    private final int originZ;
+    // The arena owns x/z within halfWidth of the origin (bridge, floor, lights)
+    private final int halfWidth;
+    // colorpartyworld, or colorpartyworld_<id> if the arena has a world of its own
+    private final String worldName;
+    private final boolean ownWorld;
+    // Seconds the arena's own world has been loaded without anyone in it
+    private int idleSeconds = 0;
+
+    private final FloorState floorState;
+    private final DirtyRegion dirtyRegion;
+    private final BeaconRegistry beaconRegistry;
+    private final ArenaLighting lighting;
+    private final ClientFloorRenderer clientFloorRenderer;
+    private final PowerupManager powerupManager;
+    private final CrazyEffectManager crazyEffects;
+
+    // The countdown, the rounds and their floors, see RoundRules
+    private final RoundRules rules;
+
+    // Randomness of the current game: floors, colors, beacons, powerups, effects, see GameRandom
+    private GameRandom random = new GameRandom(GameRandom.newSeed());
+    // Seed for the next game, set with /cp seed to replay one, null for a new seed
+    private Long nextSeed = null;
+
+    // Sets to track which players are in the game at all, and which are still alive
+    // "playersInGame" = everyone who joined and hasn't fully left
+    // "activePlayers" = those who haven't died/fallen yet
+    private final Set<UUID> playersInGame = new HashSet<>();
+    private final Set<UUID> activePlayers = new HashSet<>();
+
+    // Game state flags
+    private boolean gameStarted = false;
+    private boolean countdownRunning = false;
+    // Keep track of whether game has ended
+    private boolean gameEnded = false;
+    // Keep track of whether Crazy Mode is selected
+    private boolean crazyMode = false;
+
+    // Track players who fell "this tick" for multi-winner detection.
+    // If multiple players empty the set at once, they are all winners
+    private final Set<UUID> fellThisTick = new LinkedHashSet<>();
+
+    // The "safe color" for the current round (the color that remains after freeze)
+    // Also used by color cows and color-trail
+    private Material currentSafeColor = Material.LIGHT_GRAY_TERRACOTTA;
+
+    // usageLockedUntil => a map from UUID => last usage time + 250ms
+    // to prevent immediate item usage if slot is already selected
+    private final Map<UUID, Long> usageLockedUntil = new HashMap<>();
+
+    // Each player's pre-game spot, set when they join, key = player UUID; value = double[]{xOffset, zOffset}
+    private final Map<UUID, double[]> preGameOffsets = new HashMap<>();
+
+    // The "color trail" effect set of players, blocks below where playing is standing are recolored
+    private final Set<UUID> playersWithColorTrail = new HashSet<>();
+
+    private RadioSongPlayer currentSongPlayer = null;
+
+    // True while reset() is restoring the arena, resetFuture completes when it is done
+    private boolean resetting = false;
+    private CompletableFuture<Void> resetFuture;
+
+    public Arena(ColorPartyPlugin plugin, int id, int originX, int originZ, int halfWidth, boolean ownWorld) {
+        this.plugin = plugin;
+        this.id = id;
+        this.originX = originX;
+        this.originZ = originZ;
+        this.halfWidth = halfWidth;
+        this.ownWorld = ownWorld;
+        this.worldName = ownWorld ? ColorPartyPlugin.MINIGAME_WORLD_NAME + "_" + id : ColorPartyPlugin.MINIGAME_WORLD_NAME;
+
+        int startX = getFloorStartX();
+        int startZ = getFloorStartZ();
+        floorState = new FloorState(startX, FLOOR_Y, startZ);
+        dirtyRegion = new DirtyRegion(originX - halfWidth, originZ - halfWidth, originX + halfWidth, originZ + halfWidth);
+        plugin.getFloorWriter().addFloorState(floorState);
+        plugin.getFloorWriter().addDirtyRegion(dirtyRegion);
+        beaconRegistry = new BeaconRegistry(plugin.getFloorWriter());
+        lighting = new ArenaLighting(plugin, id, originX, originZ, ownWorld,
+                plugin.getConfig().getString("lighting.backend", "blocks"),
+                plugin.getConfig().getInt("lighting.samples", 16));
+        clientFloorRenderer = new ClientFloorRenderer(plugin, plugin.getFloorWriter(),
+                plugin.getConfig().getBoolean("client-side-floor.enabled", false), floorState, this::getOnlinePlayers);
+        powerupManager = new PowerupManager(plugin, worldName, playersWithColorTrail, startX, startZ);
+        crazyEffects = new CrazyEffectManager(plugin, worldName, startX, startZ, FLOOR_Y);
+        rules = new RoundRules(plugin, this, plugin.getFloorVariations(),
+                runnable -> plugin.getBackgroundExecutor().execute(runnable));
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    // The world the arena is in, null while its own world is unloaded
+    public World getWorld() {
+        return Bukkit.getWorld(worldName);
+    }
+
+    public boolean hasOwnWorld() {
+        return ownWorld;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public int getOriginZ() {
+        return originZ;
+    }
+
+    public int getFloorStartX() {
+        return originX - FLOOR_SIZE / 2;
+    }
+
+    public int getFloorStartZ() {
+        return originZ - FLOOR_SIZE / 2;
+    }
+
+    // True if the block column (x, z) belongs to this arena
+    public boolean contains(int x, int z) {
+        return Math.abs(x - originX) <= halfWidth && Math.abs(z - originZ) <= halfWidth;
+    }
+
+    public FloorState getFloorState() {
+        return floorState;
+    }
+
+    public DirtyRegion getDirtyRegion() {
+        return dirtyRegion;
+    }
+
+    public BeaconRegistry getBeaconRegistry() {
+        return beaconRegistry;
+    }
+
+    public ArenaLighting getLighting() {
+        return lighting;
+    }
+
+    public ClientFloorRenderer getClientFloorRenderer() {
+        return clientFloorRenderer;
+    }
+
+    public CrazyEffectManager getCrazyEffects() {
+        return crazyEffects;
+    }
+
+    // Seed of the current (or last) game
+    public long getSeed() {
+        return random.getSeed();
+    }
+
+    // The next game in this arena uses this seed instead of a new one, to replay a logged game
+    public void setNextSeed(long seed) {
+        nextSeed = seed;
+    }
+
+    public RoundEngine getRoundEngine() {
+        return rules.getEngine();
+    }
+
+    public boolean isInGame(UUID playerId) {
+        return playersInGame.contains(playerId);
+    }
+
+    public int getPlayerCount() {
+        return playersInGame.size();
+    }
+
+    // True from the start countdown until the game is over
+    public boolean isGameInProgress() {
+        return (gameStarted || countdownRunning) && !gameEnded;
+    }
+
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+
+    // False while the arena is reset or its world is unloaded, the plugin's warm-up must have finished too
+    // True once the arena has been built or reset successfully (the DirtyRegion tracks it from then on)
+    public boolean isReady() {
+        World world = getWorld();
+        return plugin.isReady() && !resetting && world != null && dirtyRegion.isTracking(world);
+    }
+
+    public boolean isResetting() {
+        return resetting;
+    }
+
+    // True for a short moment after a powerup was granted, so the selected slot isn't used right away
+    public boolean isUsageLocked(UUID playerId) {
+        return System.currentTimeMillis() < usageLockedUntil.getOrDefault(playerId, 0L);
+    }
+
+    // The players of this arena that are online
+    public List<Player> getOnlinePlayers() {
+        List<Player> players = new ArrayList<>();
+        for (UUID uuid : playersInGame) {
+            Player p = Bukkit.getPlayer(uuid);
+            if (p != null) {
+                players.add(p);
+            }
+        }
+        return players;
+    }
+
+    // Helper: send message only to the players of this arena
+    private void sendGameMessage(String msg) {
+        for (Player p : getOnlinePlayers()) {
+            p.sendMessage(msg);
+        }
+    }
+
+    // Helper: only play sound to the players of this arena
+    private void playSoundInArena(Sound sound, float volume, float pitch) {
+        for (Player p : getOnlinePlayers()) {
+            p.playSound(p.getLocation(), sound, volume, pitch);
+        }
+    }
+
+    // Each player's "pre-game" offset, so they can be re-teleported to the dance floor at countdown.
+    // Value = double[]{xOffset, zOffset}, see ColorPartyNPCListener.sendToPreGameArea()
+    public void setPreGameOffset(UUID playerId, double xOffset, double zOffset) {
+        preGameOffsets.put(playerId, new double[]{ xOffset, zOffset });
+    }
+
+    // A player's pre-game offset in this arena, (0, 0) if none is stored
+    public double[] getPreGameOffset(UUID playerId) {
+        return preGameOffsets.getOrDefault(playerId, new double[]{0.0, 0.0});
+    }
+
+    // Called from NPC logic, adds them to playersInGame + activePlayers
+    public void addPlayer(Player player) {
+        playersInGame.add(player.getUniqueId());
+        activePlayers.add(player.getUniqueId());
+
+        // If there's already a song playing, add them so they can hear it
+        if (currentSongPlayer != null) {
+            currentSongPlayer.addPlayer(player);
+        }
+    }
+
+    // If all players are gone, reset the arena
+    public void removePlayer(Player player) {
+        playersInGame.remove(player.getUniqueId());
+        activePlayers.remove(player.getUniqueId());
+        usageLockedUntil.remove(player.getUniqueId());
+        preGameOffsets.remove(player.getUniqueId());
+
+        if (playersInGame.isEmpty()) {
+            // No players left: reset the arena for next time
+            rules.stop();
+            crazyEffects.stopAllEffects();
+            stopCurrentSong();
+            reset(null);
+            gameStarted = false;
+            countdownRunning = false;
+        }
+    }
+
+    // "Start Normal Mode" / "Start Crazy Mode": teleport everyone onto the floor and count down.
+    // Returns false if a game is already starting or running, or the arena isn't ready yet.
+    public boolean start(boolean crazy) {
+        if (gameStarted || countdownRunning || !isReady()) return false;
+        crazyMode = crazy;
+        random = new GameRandom(nextSeed != null ? nextSeed : GameRandom.newSeed());
+        nextSeed = null;
+        rules.newGame(random);
+        powerupManager.setRandom(random.powerups());
+        crazyEffects.setRandom(random.effects());
+        plugin.getLogger().info("Arena " + id + ": " + (crazy ? "crazy" : "normal") + " game with "
+                + playersInGame.size() + " player(s), seed " + random.getSeed() + ".");
+        if (crazy) {
+            // Show "Starting Crazy Mode!" in purple
+            sendGameMessage(ChatColor.DARK_PURPLE + "Starting Crazy Mode!");
+        } else {
+            // Show "Starting Normal Mode!" in green
+            sendGameMessage(ChatColor.GREEN + "Starting Normal Mode!");
+        }
+
+        // Teleport all players of the arena onto the dance floor
+        teleportAllPlayersToDanceFloor();
+
+        // Then do a 5-second countdown
+        startCountdown(5);
+        return true;
+    }
+
+    // A player left-clicked a beacon of this arena
+    public void clickBeacon(Player player, Block clicked) {
+        Location loc = clicked.getLocation();
+        // The powerup was rolled when the beacon spawned, beacons from before a reload roll now
+        BeaconRegistry.Beacon beacon = beaconRegistry.remove(clicked);
+        grantRandomPowerup(player, loc, beacon != null ? beacon.powerup() : random.beacons().nextInt(POWERUP_COUNT));
+    }
+
+    // A random spot on the floor ring around the origin, at y, with the player's view
+    private Location floorSpawn(World world, double y, Location view) {
+        // Grab a random offset from the NPCListener's array:
+        int[][] offsets = ColorPartyNPCListener.SPAWN_OFFSETS;
+        int[] chosen = offsets[random.spawns().nextInt(offsets.length)];
+        double spawnX = originX + 0.5 + chosen[0];
+        double spawnZ = originZ + 0.5 + chosen[1];
+        if (view == null) {
+            return new Location(world, spawnX, y, spawnZ);
+        }
+        return new Location(world, spawnX, y, spawnZ, view.getYaw(), view.getPitch());
+    }
+
+    // Picks from the original 8 SPAWN_OFFSETS in ColorPartyNPCListener,
+    // teleporting each player to Y=121 with an offset from the origin.
+    private void teleportAllPlayersToDanceFloor() {
+        World cpWorld = getWorld();
+        if (cpWorld == null) return;
+
+        for (Player p : getOnlinePlayers()) {
+            if (p.getWorld().getName().equals(worldName)) {
+                p.teleport(floorSpawn(cpWorld, FLOOR_Y + 1, p.getLocation()));
+
+                p.setGameMode(GameMode.SURVIVAL);
+                p.setAllowFlight(false);
+                p.setFlying(false);
+                p.setFallDistance(0f);
+            }
+        }
+    }
+
+    // teleportPlayerToSafeTile: picks a random block that is currentSafeColor
+    // in the 64x64 floor, teleports them there. Called by the Teleport clock usage.
+    public void teleportPlayerToSafeTile(Player player) {
+        World cpWorld = getWorld();
+        if (cpWorld == null) return;
+
+        Location target = safeTileTarget(clientFloorRenderer, cpWorld, getFloorStartX(), FLOOR_Y, getFloorStartZ(),
+                currentSafeColor, random.powerups());
+        if (target == null) {
+            player.sendMessage("No safe tile found to teleport!");
+            return;
+        }
+        player.teleport(target);
+        player.sendMessage(ChatColor.GREEN + "Teleported to a safe tile!");
+    }
+
+    // Where teleportPlayerToSafeTile sends a player, null if no tile has the color
+    static Location safeTileTarget(ClientFloorRenderer renderer, World cpWorld, int startX, int y, int startZ,
+                                   Material safeColor, RandomGenerator random) {
+        int size = FLOOR_SIZE;
+        // One random set bit of the safe color's tile mask
+        long[] safeTiles = renderer.getVisibleMask(cpWorld, startX, y, startZ, safeColor);
+        int tile = TileMask.pickRandom(safeTiles, random);
+        if (tile < 0) return null;
+        // stand at y=121
+        return new Location(cpWorld, startX + tile / size + 0.5, y + 1.1, startZ + tile % size + 0.5);
+    }
+
+    // grantRandomPowerup has 9 types:
+    // 0: Leap Axe
+    // 1: Color Cow
+    // 2: Jump Potion
+    // 3: Speed Potion
+    // 4: Color Trail
+    // 5: Teleport Clock
+    // 6: Teleport to random spot on dance floor
+    // 7: Starvation (makes it difficult to move)
+    // 8: Magic carpet (player can't fall)
+    private static final int POWERUP_COUNT = 9;
+
+    private void grantRandomPowerup(Player player, Location beaconLoc, int roll) {
+        switch (roll) {
+            case 0:
+                powerupManager.givePlayerOneUseAxe(player);
+                sendGameMessage(player.getName() + " got a Leap Axe!");
+                break;
+            case 1:
+                powerupManager.spawnExplosionCow(beaconLoc, currentSafeColor);
+                sendGameMessage(player.getName() + " unleashed a Color Cow!");
+                break;
+            case 2:
+                powerupManager.givePlayerJumpPotion(player);
+                sendGameMessage(player.getName() + " got a Jump Potion!");
+                break;
+            case 3:
+                powerupManager.givePlayerSpeedPotion(player);
+                sendGameMessage(player.getName() + " got a Speed Potion!");
+                break;
+            case 4:
+                powerupManager.activateColorTrail(player);
+                sendGameMessage(player.getName() + " got a Color Trail!");
+                break;
+            case 5:
+                powerupManager.givePlayerTeleportClock(player);
+                sendGameMessage(player.getName() + " got a Teleport clock!");
+                break;
+            case 6:
+                // teleport the player to a random location on the dance floor.
+                powerupManager.teleportPlayerRandomFloor(player);
+                sendGameMessage(player.getName() + " was teleported!");
+                break;
+            case 7:
+                // Hunger until the next round
+                powerupManager.makePlayerHungry(player);
+                sendGameMessage(player.getName() + " has been Starved!");
+                break;
+            case 8:
+                // Magic Carpet
+                powerupManager.activateMagicCarpet(player);
+                sendGameMessage(player.getName() + " got a Magic Carpet!");
+                break;
+        }
+        usageLockedUntil.put(player.getUniqueId(), System.currentTimeMillis() + 250L);
+    }
+
+    // onMove: color trail, and what to do when a player falls into the void
+    public void onMove(Player player, Location to) {
+        // Color trail logic
+        if (playersWithColorTrail.contains(player.getUniqueId())) {
+            if (to.getY() >= FLOOR_Y) {
+                Block below = player.getWorld().getBlockAt(to.getBlockX(), FLOOR_Y, to.getBlockZ());
+                Material belowType = plugin.getFloorWriter().getType(below);
+                if (belowType != Material.AIR) {
+                    if (random.powerups().nextInt(5) == 0) {
+                        Material[] terras = {
+                                Material.WHITE_TERRACOTTA, Material.ORANGE_TERRACOTTA, Material.MAGENTA_TERRACOTTA,
+                                Material.LIGHT_BLUE_TERRACOTTA, Material.YELLOW_TERRACOTTA, Material.LIME_TERRACOTTA,
+                                Material.PINK_TERRACOTTA, Material.GRAY_TERRACOTTA, Material.LIGHT_GRAY_TERRACOTTA,
+                                Material.CYAN_TERRACOTTA, Material.PURPLE_TERRACOTTA, Material.BLUE_TERRACOTTA,
+                                Material.BROWN_TERRACOTTA, Material.GREEN_TERRACOTTA, Material.RED_TERRACOTTA,
+                                Material.BLACK_TERRACOTTA
+                        };
+                        Material newColor = terras[random.powerups().nextInt(terras.length)];
+                        if (belowType == Material.LIGHT_GRAY_TERRACOTTA && newColor == Material.LIGHT_GRAY_TERRACOTTA) {
+                            // Skip changing a LGRAY block to LGRAY
+                        } else {
+                            plugin.getFloorWriter().set(below, newColor);
+                        }
+                    }
+                }
+            }
+        }
+
+        // CASE: Player falls below VOID_LEVEL
+        if (to.getY() < VOID_LEVEL) {
+            // World reference is needed for teleports
+            World cpWorld = getWorld();
+            if (cpWorld == null) return;
+
+            // CASE A: Pre-game (gameStarted == false, gameEnded == false)
+            // place them at y=121 on the dance floor
+            if (!gameStarted && !gameEnded) {
+                player.teleport(floorSpawn(cpWorld, FLOOR_Y + 1, null));
+                player.setGameMode(GameMode.SURVIVAL);
+                player.setFallDistance(0f);
+                // No inventory clearing, no "You fell" message
+                return;
+            }
+
+            // CASE B: Game in progress (gameStarted == true)
+            if (gameStarted) {
+                // Only process the "fell to death" logic if they're an active player
+                if (activePlayers.contains(player.getUniqueId())) {
+                    fellThisTick.add(player.getUniqueId());
+                    sendGameMessage(ChatColor.RED + player.getName() + " fell to their death!");
+                    activePlayers.remove(player.getUniqueId());
+
+                    player.setFoodLevel(20);
+                    player.setSaturation(5f);
+
+                    // Play lightning effect if before final round
+                    if (rules.getRound() < MAX_ROUNDS) {
+                        Location loc = player.getLocation();
+                        cpWorld.strikeLightningEffect(loc); // Visual effect
+                        cpWorld.playSound(loc, Sound.ENTITY_LIGHTNING_BOLT_THUNDER, 1f, 1f);
+                    }
+
+                    // Check if no players remain
+                    if (activePlayers.isEmpty()) {
+                        // Stop the song immediately when the last player falls.
+                        stopCurrentSong();
+
+                        // Remove beacon powerups
+                        removeBeaconsInFloorRegion();
+
+                        // Stop Crazy mode effects
+                        crazyEffects.stopAllEffects();
+
+                        // Multi-winner scenario
+                        announceWinners(new LinkedHashSet<>(fellThisTick));
+
+                        BuildVariations.placeLayout(cpWorld, getFloorStartX(), getFloorStartZ(), FLOOR_Y,
+                                BuildVariations.buildVariationGameOver());
+                        gameStarted = false;
+                        // Set as true so post-game logic takes effect
+                        gameEnded = true;
+                        countdownRunning = false;
+                        rules.end();
+                    } else if (activePlayers.size() == 1) {
+                        UUID lastId = activePlayers.iterator().next();
+                        Player lastPlayer = Bukkit.getPlayer(lastId);
+                        if (lastPlayer != null) {
+                            sendGameMessage(lastPlayer.getName() + " is the last player standing!");
+                            sendGameMessage("They will continue alone until they fall (or we reach 25 rounds)...");
+                        }
+                    }
+                }
+
+                // Switch the fallen player to ADVENTURE mode with flight
+                player.setGameMode(GameMode.ADVENTURE);
+                player.setAllowFlight(true);
+                player.setFlying(true);
+                player.setInvulnerable(true);
+
+                // Move them above the floor to watch
+                spawnObserver(player);
+
+                // Clear inventory, give Exit bed
+                player.setFallDistance(0f);
+                player.getInventory().clear();
+                ItemStack bed = new ItemStack(Material.WHITE_BED, 1);
+                ItemMeta meta = bed.getItemMeta();
+                if (meta != null) {
+                    meta.setDisplayName("Exit");
+                    bed.setItemMeta(meta);
+                }
+                player.getInventory().setItem(8, bed);
+                return;
+            }
+
+            // CASE C: Post-game (gameStarted == false, gameEnded == true)
+            // In this scenario, the game has finished and winners were declared.
+            if (!gameStarted && gameEnded) {
+                // Teleport them above the dance floor in ADVENTURE mode with flight to observe
+                spawnObserver(player);
+
+                player.setGameMode(GameMode.ADVENTURE);
+                player.setAllowFlight(true);
+                player.setFlying(true);
+                player.setInvulnerable(true);
+                player.setFoodLevel(20);
+                player.setSaturation(5f);
+
+                // OPTIONAL (DISABLED FOR NOW): clear player inventory post game
+                // player.getInventory().clear();
+            }
+        }
+    }
+
+    // "A WON THE GAME!", "A and B WON THE GAME!" or "A, B, and C WON THE GAME!"
+    private void announceWinners(Set<UUID> winners) {
+        List<String> names = new ArrayList<>();
+        for (UUID id : winners) {
+            Player p = Bukkit.getPlayer(id);
+            if (p != null) {
+                names.add(p.getName());
+            }
+        }
+        if (names.size() == 1) {
+            sendGameMessage(ChatColor.GOLD + names.get(0) + " WON THE GAME!");
+        } else if (names.size() == 2) {
+            sendGameMessage(ChatColor.GOLD + names.get(0) + " and " + names.get(1) + " WON THE GAME!");
+        } else if (names.size() > 2) {
+            String allButLast = String.join(", ", names.subList(0, names.size() - 1));
+            String lastName = names.get(names.size() - 1);
+            sendGameMessage(ChatColor.GOLD + allButLast + ", and " + lastName + " WON THE GAME!");
+        }
+        sendGameMessage(rejoinMessage());
+    }
+
+    // What players are told once the game is over
+    private String rejoinMessage() {
+        return plugin.getMatchmakingQueue() != null
+                ? "You will be moved to the next game shortly."
+                : "All players must exit and rejoin to reset the game.";
+    }
+
+    // spawnObserver: teleport player overhead to watch
+    private void spawnObserver(Player player) {
+        World cpWorld = getWorld();
+        if (cpWorld == null) return;
+        int[][] offsets = {
+                {-2, -2}, {-2, 0}, {-2, 2},
+                { 0, -2},          { 0, 2},
+                { 2, -2}, { 2, 0}, { 2, 2}
+        };
+        int[] offset = offsets[random.spawns().nextInt(offsets.length)];
+        double x = originX + 0.5 + offset[0];
+        double z = originZ + 0.5 + offset[1];
+        Location loc = new Location(cpWorld, x, 127, z);
+        player.teleport(loc);
+    }
+
+    // startCountdown: 5..4..3..2..1..Go, the rest of the game is driven by the RoundRules
+    public void startCountdown(int countdownSeconds) {
+        countdownRunning = true;
+        rules.startCountdown(countdownSeconds);
+    }
+
+    // "Starting in 5..."
+    @Override
+    public void onCountdown(int secondsLeft) {
+        sendGameMessage("Starting in " + secondsLeft + "...");
+    }
+
+    // "Go!": the countdown is over, set up the players and start round 1
+    @Override
+    public void onGameStart() {
+        sendGameMessage("Go!");
+        gameStarted = true;
+        countdownRunning = false;
+        fellThisTick.clear();
+        playersWithColorTrail.clear();
+
+        // Remove "Start Normal/Crazy" items from inventory
+        for (Player p : getOnlinePlayers()) {
+            // Remove emerald or shard from slot 0 or 1
+            ItemStack slot0 = p.getInventory().getItem(0);
+            if (slot0 != null && (slot0.getType() == Material.EMERALD || slot0.getType() == Material.AMETHYST_SHARD)) {
+                p.getInventory().setItem(0, null);
+            }
+            ItemStack slot1 = p.getInventory().getItem(1);
+            if (slot1 != null && (slot1.getType() == Material.EMERALD || slot1.getType() == Material.AMETHYST_SHARD)) {
+                p.getInventory().setItem(1, null);
+            }
+            // Set walk speed +20%
+            p.setWalkSpeed(0.24f);
+        }
+
+        // Start music
+        startRandomSong();
+    }
+
+    // RoundRules phases. Per round: BUILD (floor, beacons, 3s silent) -> CALL (safe color in slot 7,
+    // freezeCount second countdown) -> FREEZE (unsafe blocks removed) -> INTERMISSION -> next BUILD.
+    // After the final round's freeze, INTERMISSION is 4s to allow any last-second falls, then ENDED.
+
+    @Override
+    public boolean hasPlayersLeft() {
+        return gameStarted && !gameEnded && !activePlayers.isEmpty();
+    }
+
+    @Override
+    public void onCallSecond(int secondsLeft) {
+        playSoundInArena(Sound.BLOCK_NOTE_BLOCK_HAT, 1f, 1f);
+        sendGameMessage(secondsLeft + "...");
+    }
+
+    @Override
+    public void onFinalRound() {
+        multiEndGameNow();
+    }
+
+    @Override
+    public void onEnded() {
+        RoundEngine engine = rules.getEngine();
+        plugin.getLogger().info("Color Party game in arena " + id + " over after " + engine.getTick()
+                + " ticks: " + engine.describeCost());
+    }
+
+    private void startRandomSong() {
+        // Get references to the loaded songs
+        Song fixYou = plugin.getFixYouSong();
+        Song getLucky = plugin.getGetLuckySong();
+
+        if (fixYou == null && getLucky == null) {
+            plugin.getLogger().warning("No songs loaded! Skipping music.");
+            return;
+        }
+
+        // Randomly pick one
+        Song chosen = null;
+        if (fixYou != null && getLucky != null) {
+            chosen = (random.music().nextBoolean()) ? fixYou : getLucky;
+        } else if (fixYou != null) {
+            chosen = fixYou;
+        } else {
+            chosen = getLucky;
+        }
+
+        // Create a RadioSongPlayer with the chosen song
+        currentSongPlayer = new RadioSongPlayer(chosen);
+
+        // Add all players in the game to the RadioSongPlayer so they can hear it
+        for (Player p : getOnlinePlayers()) {
+            currentSongPlayer.addPlayer(p);
+        }
+
+        // Make sure the music actually plays
+        currentSongPlayer.setAutoDestroy(true);
+        currentSongPlayer.setPlaying(true);
+    }
+
+    private void stopCurrentSong() {
+        if (currentSongPlayer != null) {
+            currentSongPlayer.setPlaying(false);
+            currentSongPlayer.destroy(); // remove internal references, if any
+            currentSongPlayer = null;
+        }
+    }
+
+    // A new round: place its floor and safe color (picked by the RoundRules),
+    // 60% chance spawn 3 beacons, freeze time check
+    @Override
+    public void onRound(int round, RoundRules.Floor floor, int freezeCount) {
+        // STOP ANY CRAZY EFFECT
+        if (crazyMode) {
+            crazyEffects.stopChickenJockeyEffect2();
+        }
+
+        // If there are any starvedPlayers set in the PowerupManager:
+        powerupManager.restoreStarvedPlayers();
+
+        // Refill hunger for all players in the arena regardless of whether they were starved by powerup:
+        for (Player player : getOnlinePlayers()) {
+            player.setFoodLevel(20);
+            player.setSaturation(5f);
+        }
+
+        // Remove magic carpets from the previous round
+        powerupManager.removeAllMagicCarpets();
+
+        fellThisTick.clear();
+
+        sendGameMessage("Round " + round + "/" + MAX_ROUNDS);
+
+        // The floor and safe color were prepared on a worker thread during the last round,
+        // so the main thread only writes the finished layout
+        placeFloor(floor.layout(), !crazyMode && clientFloorRenderer.isEnabled());
+        currentSafeColor = floor.safeColor();
+
+        // Spawn 3 beacons (60% chance)
+        if (random.beacons().nextDouble() < 0.60) {
+            for (int i = 0; i < 3; i++) {
+                spawnBeacon();
+            }
+            sendGameMessage(ChatColor.GREEN + "Powerups have spawned!");
+        }
+
+        // If in crazyMode, pick a random effect to start
+        if (crazyMode) {
+            // The round length in ticks is freezeCount + the short 3s delay.
+            // If freezeCount = 5 => 5s freeze => plus ~3s pre-freeze => 8s total => ~160 ticks
+            int totalSeconds = freezeCount + 3;  // 3s pre-freeze
+            int roundTicks = totalSeconds * 20;
+
+            crazyEffects.startRandomEffect(plugin, FLOOR_SIZE, getFloorStartX(), getFloorStartZ(), FLOOR_Y, roundTicks);
+        }
+
+        if (RoundRules.isFreezeCountReduced(round)) {
+            sendGameMessage(ChatColor.YELLOW + "Round time reduced to " + freezeCount + " second" + (freezeCount == 1 ? "!" : "s!"));
+        }
+
+        // 3s silent (BUILD_TICKS) before the RoundRules move on to CALL
+    }
+
+    // spawnBeacon: place a beacon block at y=121 in the 64x64 region and roll its powerup (0..8)
+    private void spawnBeacon() {
+        World cpWorld = getWorld();
+        if (cpWorld == null) return;
+
+        // Try another cell if this one already has a beacon
+        for (int attempt = 0; attempt < 8; attempt++) {
+            int rx = getFloorStartX() + random.beacons().nextInt(FLOOR_SIZE);
+            int rz = getFloorStartZ() + random.beacons().nextInt(FLOOR_SIZE);
+            if (beaconRegistry.spawn(cpWorld, rx, FLOOR_Y + 1, rz, random.beacons().nextInt(POWERUP_COUNT)) != null) {
+                return;
+            }
+        }
+    }
+
+    // The color is called => place safe color in inventory slot 7, the RoundRules count
+    // freezeCount seconds down (onCallSecond) and then enter FREEZE
+    @Override
+    public void onCall(Material safeClay) {
+        // Place safe block in slot 7
+        for (UUID uuid : activePlayers) {
+            Player p = Bukkit.getPlayer(uuid);
+            if (p != null) {
+                ItemStack clayItem = new ItemStack(safeClay, 1);
+                var meta = clayItem.getItemMeta();
+                if (meta != null) {
+                    meta.setDisplayName("Stand on this!");
+                    clayItem.setItemMeta(meta);
+                }
+                p.getInventory().setItem(7, clayItem);
+            }
+        }
+    }
+
+    // freeze => remove beacons, remove unsafe blocks, remove color trail effect
+    @Override
+    public void onFreeze(Material safeClay) {
+        playSoundInArena(Sound.BLOCK_NOTE_BLOCK_BASS, 1f, 1f);
+        sendGameMessage(ChatColor.YELLOW + "FREEZE!");
+
+        // STOP ANY CRAZY EFFECT
+        if (crazyMode) {
+            crazyEffects.stopAllEffects();
+        }
+
+        removeBeaconsInFloorRegion();
+        removeUnsafeBlocks(safeClay);
+
+        // Disable color trail so it doesn't carry into next round
+        playersWithColorTrail.clear();
+
+        // Remove safe block from slot 7
+        for (UUID uuid : activePlayers) {
+            Player p = Bukkit.getPlayer(uuid);
+            if (p != null) {
+                p.getInventory().setItem(7, null);
+            }
+        }
+    }
+
+    // multiEndGameNow => called after final round's 4s delay
+    // teleports survivors overhead and sets them as winners
+    private void multiEndGameNow() {
+        // Remove all powerup beacons from the dance floor
+        removeBeaconsInFloorRegion();
+
+        World cpWorld = getWorld();
+
+        if (!gameStarted) return;
+        gameStarted = false;
+
+        // Indicate that game has ended
+        gameEnded = true;
+
+        // Stop the music
+        stopCurrentSong();
+
+        if (activePlayers.isEmpty()) {
+            sendGameMessage(rejoinMessage());
+            if (cpWorld != null) {
+                BuildVariations.placeLayout(cpWorld, getFloorStartX(), getFloorStartZ(), FLOOR_Y,
+                        BuildVariations.buildVariationGameOver());
+            }
+            return;
+        }
+        // Multi winners
+        Set<UUID> alive = new LinkedHashSet<>(activePlayers);
+        announceWinners(alive);
+        if (cpWorld != null) {
+            BuildVariations.placeLayout(cpWorld, getFloorStartX(), getFloorStartZ(), FLOOR_Y,
+                    BuildVariations.buildVariationGameOver());
+        }
+
+        // Spawn them overhead
+        for (UUID id : alive) {
+            Player p = Bukkit.getPlayer(id);
+            if (p != null) {
+                p.setGameMode(GameMode.ADVENTURE);
+                p.setAllowFlight(true);
+                p.setFlying(true);
+                p.setInvulnerable(true);
+                spawnObserver(p);
+                p.setFallDistance(0f);
+                p.getInventory().clear();
+                ItemStack bed = new ItemStack(Material.WHITE_BED, 1);
+                var meta = bed.getItemMeta();
+                if (meta != null) {
+                    meta.setDisplayName("Exit");
+                    bed.setItemMeta(meta);
+                }
+                p.getInventory().setItem(8, bed);
+            }
+        }
+    }
+
+    // removeBeaconsInFloorRegion: remove the beacons spawned this round, see BeaconRegistry
+    private void removeBeaconsInFloorRegion() {
+        beaconRegistry.clear();
+    }
+
+    // Floor building logic
+
+    // Writes a finished layout to the dance floor, only tiles that differ from the current floor are written.
+    // With clientSide, the world gets a neutral floor and players are sent the layout instead.
+    private void placeFloor(FloorLayout layout, boolean clientSide) {
+        World cpWorld = getWorld();
+        if (cpWorld == null) return;
+
+        if (clientSide) {
+            clientFloorRenderer.show(cpWorld, getFloorStartX(), getFloorStartZ(), FLOOR_Y, layout);
+        } else {
+            BuildVariations.placeLayout(cpWorld, getFloorStartX(), getFloorStartZ(), FLOOR_Y, layout);
+        }
+    }
+
+    // removeUnsafeBlocks: remove everything not safeClay from the 64x64 floor
+    private void removeUnsafeBlocks(Material safeClay) {
+        World cpWorld = getWorld();
+        if (cpWorld == null) return;
+
+        // The round was only shown to clients, remove what players don't see as the safe color
+        if (clientFloorRenderer.isActive()) {
+            clientFloorRenderer.freeze(safeClay);
+            return;
+        }
+        removeUnsafeBlocks(plugin.getFloorWriter(), floorState, cpWorld,
+                getFloorStartX(), FLOOR_Y, getFloorStartZ(), safeClay);
+    }
+
+    // The world part of removeUnsafeBlocks, static so FloorBenchmark can run it without an arena
+    static void removeUnsafeBlocks(FloorWriter writer, FloorState floorState, World cpWorld,
+                                   int startX, int y, int startZ, Material safeClay) {
+        int floorSize = FLOOR_SIZE;
+        FloorWriter.Batch batch = writer.batch(cpWorld);
+        // The masks don't know about queued writes, with some still waiting every tile is checked
+        if (floorState.covers(cpWorld, startX, y, startZ) && !writer.hasPendingWrites(cpWorld)) {
+            // Everything except the safe color, minus tiles that are already air
+            TileMask.forEach(floorState.getFloorMaskExcept(safeClay, Material.AIR),
+                    tile -> batch.add(startX + tile / floorSize, y, startZ + tile % floorSize, Material.AIR));
+        } else {
+            for (int x = startX; x < startX + floorSize; x++) {
+                for (int z = startZ; z < startZ + floorSize; z++) {
+                    Material type = writer.getType(cpWorld, x, y, z);
+                    // Tiles that are already air don't need another block update
+                    if (type != safeClay && type != Material.AIR) {
+                        batch.add(x, y, z, Material.AIR);
+                    }
+                }
+            }
+        }
+        batch.submit();
+    }
+
+    // Arena reset
+
+    // Build/reset this arena:
+    // The first reset after startup rebuilds it from the arena snapshot (pasted at this arena's origin)
+    // or, without one, clears y=110..130, x/z ~ ±34 around the origin and builds floor_start.
+    // Later resets only put back the blocks the game changed (see DirtyRegion), spread over ticks.
+    // snapshotMode: rebuild from the arena snapshot in that mode instead of restoring the DirtyRegion,
+    // null to pick automatically. The future completes once the arena can be used again.
+    public CompletableFuture<Void> reset(ArenaSnapshot.Mode snapshotMode) {
+        gameEnded = false;
+
+        plugin.getLogger().info("Arena " + id + ": reset called.");
+        World cpWorld = getWorld();
+        if (cpWorld == null) {
+            // An unloaded world of its own is rebuilt from scratch when it is loaded again
+            if (!ownWorld) {
+                plugin.getLogger().warning("World " + worldName + " is null in Arena.reset().");
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        if (resetting) {
+            return resetFuture;
+        }
+
+        resetting = true;
+        FloorWriter writer = plugin.getFloorWriter();
+        // Whatever the last game still had queued is pointless now, and must not land after the restore.
+        // The other arenas' writes stay queued.
+        writer.cancelIn(cpWorld, originX - halfWidth, originZ - halfWidth, originX + halfWidth, originZ + halfWidth);
+        rules.discardNextFloor();
+        clientFloorRenderer.clear();
+        beaconRegistry.forget();
+
+        // The saved snapshot, or for the other arenas a copy of the first one taken at startup
+        ArenaSnapshot snapshot = plugin.getArenaSnapshot();
+        if (snapshot == null && (id != 0 || ownWorld)) {
+            snapshot = plugin.getArenaTemplate();
+        }
+
+        CompletableFuture<Integer> restored;
+        ArenaSnapshot rebuildFrom = snapshot;
+        if (snapshotMode == null && dirtyRegion.isTracking(cpWorld)) {
+            int dirty = dirtyRegion.size();
+            restored = dirtyRegion.restore(writer).thenCompose(count -> {
+                plugin.getLogger().info("Arena " + id + ": restored " + count + " of " + dirty + " changed arena blocks.");
+                // The floor_start file may have been edited since the last reset, only differences are written
+                return buildFloorFromLayout(cpWorld, plugin.getFloorStartLayout());
+            });
+            lighting.validate(cpWorld);
+        } else {
+            restored = rebuild(cpWorld, snapshot, snapshotMode);
+        }
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        resetFuture = done;
+        restored.exceptionallyCompose(error -> {
+            if (!plugin.isEnabled()) return CompletableFuture.failedFuture(error);
+            // What the DirtyRegion had recorded is gone, rebuild the whole arena once instead
+            plugin.getLogger().log(Level.WARNING, "Arena " + id + ": reset failed, rebuilding the arena.", error);
+            dirtyRegion.stop();
+            return rebuild(cpWorld, rebuildFrom, ArenaSnapshot.Mode.FULL);
+        }).whenComplete((count, error) -> {
+            resetting = false;
+            if (error != null) {
+                // Not tracking, so isReady() stays false and the next reset rebuilds the arena again
+                dirtyRegion.stop();
+                if (plugin.isEnabled()) {
+                    plugin.getLogger().log(Level.SEVERE, "Arena " + id + ": reset failed, the arena stays closed.", error);
+                }
+                done.completeExceptionally(error);
+                return;
+            }
+            // Everything the game changes from here on is undone by the next reset
+            dirtyRegion.start(cpWorld);
+            plugin.getLogger().info("Arena " + id + ": reset finished, custom floor loaded.");
+            done.complete(null);
+        });
+        return done;
+    }
+
+    // The whole arena from the snapshot (DIFF unless a mode is given) or, without one, from scratch
+    private CompletableFuture<Integer> rebuild(World cpWorld, ArenaSnapshot snapshot, ArenaSnapshot.Mode mode) {
+        if (snapshot != null) {
+            return pasteSnapshot(cpWorld, snapshot, mode != null ? mode : ArenaSnapshot.Mode.DIFF);
+        }
+        return clearAndBuild(cpWorld);
+    }
+
+    // Loads (or creates) the arena's own world and builds the arena in it. The world was unloaded
+    // without saving, so it is rebuilt like after startup: from the snapshot, the template or floor_start.
+    // The future completes once the arena can be used. Does nothing before the warm-up has finished.
+    public CompletableFuture<Void> prepareWorld() {
+        if (resetting) {
+            return resetFuture;
+        }
+        if (!ownWorld || getWorld() != null || !plugin.isReady()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long startNanos = System.nanoTime();
+        World world = plugin.loadMinigameWorld(worldName);
+        if (world == null) {
+            plugin.getLogger().warning("Arena " + id + ": could not load world " + worldName + ".");
+            return CompletableFuture.completedFuture(null);
+        }
+        // Nothing in here needs to survive an unload
+        world.setAutoSave(false);
+        idleSeconds = 0;
+        return reset(null).thenRun(() -> plugin.getLogger().info("Arena " + id + ": world " + worldName
+                + " loaded and built in " + (System.nanoTime() - startNanos) / 1_000_000 + " ms."));
+    }
+
+    // Called once a second. Unloads the arena's own world, without saving, once nobody has used it
+    // for unloadAfterSeconds, so an idle arena costs no memory or tick time.
+    public void tickIdle(int unloadAfterSeconds) {
+        World world = getWorld();
+        if (!ownWorld || world == null) return;
+        if (!playersInGame.isEmpty() || resetting || isGameInProgress() || !world.getPlayers().isEmpty()) {
+            idleSeconds = 0;
+            return;
+        }
+        if (++idleSeconds < unloadAfterSeconds) return;
+        idleSeconds = 0;
+
+        // Drop everything that still points into the world before it goes away
+        plugin.getFloorWriter().cancelIn(world, originX - halfWidth, originZ - halfWidth, originX + halfWidth, originZ + halfWidth);
+        crazyEffects.stopAllEffects();
+        beaconRegistry.forget();
+        clientFloorRenderer.release();
+        dirtyRegion.stop();
+        floorState.release();
+        if (Bukkit.unloadWorld(world, false)) {
+            plugin.getLogger().info("Arena " + id + ": world " + worldName + " unloaded after "
+                    + unloadAfterSeconds + "s without players.");
+        } else {
+            plugin.getLogger().warning("Arena " + id + ": world " + worldName + " could not be unloaded.");
+        }
+    }
+
+    // Rebuilds the arena from the snapshot, then the floor_start floor and the lighting check
+    private CompletableFuture<Integer> pasteSnapshot(World cpWorld, ArenaSnapshot snapshot, ArenaSnapshot.Mode mode) {
+        FloorWriter writer = plugin.getFloorWriter();
+        return snapshot.paste(plugin, writer, cpWorld, mode, originX, originZ).thenCompose(result -> {
+            plugin.getLogger().info("Arena " + id + ": snapshot pasted (" + mode + "): " + result.written() + " of "
+                    + result.visited() + " blocks written in " + result.ticks() + " ticks.");
+            // The paste bypasses the FloorWriter, start the shadow floor over from the world
+            floorState.capture(cpWorld);
+            lighting.ensure(cpWorld);
+            return buildFloorFromLayout(cpWorld, plugin.getFloorStartLayout());
+        });
+    }
+
+    // Full rebuild, used when nothing is known about the arena yet and there is no snapshot
+    private CompletableFuture<Integer> clearAndBuild(World cpWorld) {
+        // Clear only the inner region (x and z within 34 of the origin)
+        for (int y = CLEAR_MIN_Y; y <= CLEAR_MAX_Y; y++) {
+            for (int x = originX - CLEAR_RADIUS; x <= originX + CLEAR_RADIUS; x++) {
+                for (int z = originZ - CLEAR_RADIUS; z <= originZ + CLEAR_RADIUS; z++) {
+                    // The light layer is kept, see ArenaLighting
+                    if (y == ArenaLighting.Y && lighting.covers(x, z)) continue;
+                    cpWorld.getBlockAt(x, y, z).setType(Material.AIR);
+                }
+            }
+        }
+        plugin.getLogger().info("Arena " + id + ": cleared inner region around y=" + CLEAR_MIN_Y + ".." + CLEAR_MAX_Y
+                + ", x/z=±" + CLEAR_RADIUS + ".");
+
+        // The clear above bypasses the FloorWriter, start the shadow floor over from the world
+        floorState.capture(cpWorld);
+
+        // Load floor_start (from the floor library)
+        CompletableFuture<Integer> built = buildFloorFromLayout(cpWorld, plugin.getFloorStartLayout());
+
+        // Invisible lights above dance floor, only placed if the world doesn't have them yet
+        lighting.ensure(cpWorld);
+
+        return built;
+    }
+
+    // Builds the floor from a pre-parsed layout. The 180-degree rotation
+    // (newLocalX = 63 - oldLocalX, newLocalZ = 63 - oldLocalZ) was applied when the layout was loaded,
+    // so that the "top" from the design file is at positive Z in the game.
+    private CompletableFuture<Integer> buildFloorFromLayout(World world, FloorLayout layout) {
+        return BuildVariations.placeLayout(world, getFloorStartX(), getFloorStartZ(), FLOOR_Y, layout)
+                .whenComplete((placedCount, error) -> {
+                    if (placedCount != null) {
+                        plugin.getLogger().info("Arena " + id + ": custom floor built, " + layout.getColorCount()
+                                + " colors, blocks placed: " + placedCount);
+                    }
+                });
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.type.Light;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+/**
+ * ArenaLighting keeps the dance floor lit with a layer of invisible LIGHT blocks at y=122
+ * over the 65x65 area around the arena's origin ((0, 0) for the first arena).
+ *
+ * The layer is part of the saved world, so it is placed once ("baked") and a marker in the
+ * world's PersistentDataContainer records the layout it was baked with. After that, startups
+ * and resets only check a few random cells (lighting.samples in config.yml) and bake again
+ * if one of them is missing or has another level, instead of placing 4225 blocks and
+ * recomputing light every time.
+ *
+ * Arenas with a world of their own (arenas.own-worlds) unload it without saving, so a marker
+ * would never survive. They don't use one: the random cells alone decide whether to bake.
+ *
+ * With lighting.backend set to "lightapi", no blocks are placed: light levels are set through
+ * LightAPI (looked up by reflection, so the plugin still runs without it). If LightAPI is not
+ * installed the LIGHT blocks are used.
+ * All methods must be called on the main thread.
+ */
+public class ArenaLighting {
+
+    // Relative to the arena origin
+    public static final int MIN = -32;
+    public static final int MAX = 32;
+    public static final int Y = 122;
+    public static final int LEVEL = 15;
+
+    // Stored in the marker, a world baked with a different area or level is baked again
+    private static final String LAYOUT = MIN + ".." + MAX + "@" + Y + "/" + LEVEL;
+    private static final int BLOCKS_PER_TICK = 200;
+
+    private static final String LIGHT_API_CLASS = "ru.beykerykt.minecraft.lightapi.common.LightAPI";
+
+    private final ColorPartyPlugin plugin;
+    private final int originX;
+    private final int originZ;
+    private final String layout;
+    // Null for arenas in a world of their own, see the class comment
+    private final NamespacedKey bakedKey;
+    private final int samples;
+    private final Random random = new Random();
+
+    // LightAPI instance and its setLightLevel(String, int, int, int, int), null for the block backend
+    private Object lightApi;
+    private Method setLightLevel;
+
+    private BukkitTask task;
+
+    // Each arena has its own marker, the first one keeps the key from before there were several arenas
+    public ArenaLighting(ColorPartyPlugin plugin, int arenaId, int originX, int originZ, boolean ownWorld,
+                         String backend, int samples) {
+        this.plugin = plugin;
+        this.originX = originX;
+        this.originZ = originZ;
+        this.layout = originX == 0 && originZ == 0 ? LAYOUT : LAYOUT + " at " + originX + "," + originZ;
+        this.bakedKey = ownWorld ? null
+                : new NamespacedKey(plugin, arenaId == 0 ? "arena_lights" : "arena_lights_" + arenaId);
+        this.samples = Math.max(1, samples);
+        if ("lightapi".equalsIgnoreCase(backend)) {
+            hookLightApi();
+        }
+    }
+
+    public boolean covers(int x, int z) {
+        return x >= originX + MIN && x <= originX + MAX && z >= originZ + MIN && z <= originZ + MAX;
+    }
+
+    public boolean isVirtual() {
+        return lightApi != null;
+    }
+
+    // Makes sure the floor is lit, after startup. Bakes the layer unless the marker and a sample say it is there.
+    public void ensure(World world) {
+        if (lightApi != null) {
+            forEachCell(world, this::setVirtualLight, () ->
+                    plugin.getLogger().info("Arena lighting applied through LightAPI."));
+            return;
+        }
+        if (isBaked(world) && sample(world)) {
+            plugin.getLogger().info("Arena lighting already baked, skipping light placement.");
+            return;
+        }
+        bake(world);
+    }
+
+    // Cheap check after a reset: a few random cells, a full bake only if one is missing
+    public void validate(World world) {
+        if (lightApi != null || task != null) return;
+        if (!isBaked(world) || !sample(world)) {
+            plugin.getLogger().warning("Arena lighting is incomplete, baking it again.");
+            bake(world);
+        }
+    }
+
+    // Always true without a marker, the samples decide
+    public boolean isBaked(World world) {
+        return bakedKey == null
+                || layout.equals(world.getPersistentDataContainer().get(bakedKey, PersistentDataType.STRING));
+    }
+
+    private boolean sample(World world) {
+        int size = MAX - MIN + 1;
+        for (int i = 0; i < samples; i++) {
+            int x = originX + MIN + random.nextInt(size);
+            int z = originZ + MIN + random.nextInt(size);
+            if (!isLit(world.getBlockAt(x, Y, z))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // A LIGHT block with the layer's level
+    private static boolean isLit(Block b) {
+        return b.getType() == Material.LIGHT && b.getBlockData() instanceof Light light && light.getLevel() == LEVEL;
+    }
+
+    // Places the missing LIGHT blocks in small batches to avoid lag spikes, then writes the marker
+    private void bake(World world) {
+        PersistentDataContainer data = world.getPersistentDataContainer();
+        if (bakedKey != null) {
+            data.remove(bakedKey);
+        }
+        forEachCell(world, (w, x, z) -> {
+            Block b = w.getBlockAt(x, Y, z);
+            if (!isLit(b)) {
+                b.setType(Material.LIGHT, false);
+                Light lightBlockData = (Light) b.getBlockData();
+                lightBlockData.setLevel(LEVEL); // Full brightness
+                b.setBlockData(lightBlockData, false);
+            }
+        }, () -> {
+            if (bakedKey != null) {
+                data.set(bakedKey, PersistentDataType.STRING, layout);
+            }
+            plugin.getLogger().info("Completed placing invisible light blocks in a "
+                    + (MAX - MIN + 1) + "×" + (MAX - MIN + 1) + " area at y=" + Y + " around " + originX + "," + originZ);
+        });
+    }
+
+    private interface CellAction {
+        void apply(World world, int x, int z);
+    }
+
+    // Runs action for every cell of the lit area, BLOCKS_PER_TICK cells per tick. Replaces a running pass.
+    private void forEachCell(World world, CellAction action, Runnable onDone) {
+        if (task != null) {
+            task.cancel();
+        }
+        task = new TaskProfiler.ProfiledRunnable(plugin.getProfiler(), "lighting") {
+            int currentX = originX + MIN;
+            int currentZ = originZ + MIN;
+
+            @Override
+            protected void tick() {
+                for (int i = 0; i < BLOCKS_PER_TICK; i++) {
+                    action.apply(world, currentX, currentZ);
+                    currentZ++;
+                    if (currentZ > originZ + MAX) {
+                        currentZ = originZ + MIN;
+                        currentX++;
+                        if (currentX > originX + MAX) {
+                            cancel();
+                            task = null;
+                            onDone.run();
+                            return;
+                        }
+                    }
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    private void hookLightApi() {
+        if (Bukkit.getPluginManager().getPlugin("LightAPI") == null) {
+            plugin.getLogger().warning("lighting.backend is lightapi but LightAPI is not installed, using LIGHT blocks.");
+            return;
+        }
+        try {
+            Class<?> api = Class.forName(LIGHT_API_CLASS);
+            lightApi = api.getMethod("get").invoke(null);
+            setLightLevel = api.getMethod("setLightLevel", String.class, int.class, int.class, int.class, int.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            lightApi = null;
+            setLightLevel = null;
+            plugin.getLogger().warning("Could not use LightAPI (" + e + "), using LIGHT blocks.");
+        }
+    }
+
+    private void setVirtualLight(World world, int x, int z) {
+        if (lightApi == null) return;
+        try {
+            setLightLevel.invoke(lightApi, world.getName(), x, Y, z, LEVEL);
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("LightAPI call failed (" + e + "), using LIGHT blocks.");
+            lightApi = null;
+            setLightLevel = null;
+            Bukkit.getScheduler().runTask(plugin, plugin.getProfiler().wrap("lighting.bake", () -> bake(world)));
+        }
+    }
+}
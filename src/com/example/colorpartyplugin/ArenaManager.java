@@ -0,0 +1,155 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ArenaManager holds the arenas in colorpartyworld ("arenas.count" in config.yml). They are
+ * placed "arenas.spacing" blocks apart along x, the first one at the original (0, 0) geometry,
+ * and each runs its own game (see Arena). With "arenas.own-worlds" every arena is in a void world
+ * of its own instead, loaded while players need it and unloaded when it has been idle.
+ *
+ * It finds the arena a player joined or a position belongs to, and picks the arena a new
+ * player is sent to. With up to 16 arenas a linear scan is cheaper than keeping an index.
+ * All methods must be called on the main thread.
+ */
+public class ArenaManager {
+
+    public static final int MAX_ARENAS = 16;
+
+    private final ColorPartyPlugin plugin;
+    private final List<Arena> arenas = new ArrayList<>();
+    private final boolean ownWorlds;
+
+    public ArenaManager(ColorPartyPlugin plugin, int count, int spacing, boolean ownWorlds) {
+        this.plugin = plugin;
+        this.ownWorlds = ownWorlds;
+        int n = Math.max(1, Math.min(MAX_ARENAS, count));
+        for (int i = 0; i < n; i++) {
+            // Own worlds keep the same origins, so block positions still identify the arena
+            arenas.add(new Arena(plugin, i, i * spacing, 0, spacing / 2 - 1, ownWorlds));
+        }
+    }
+
+    public boolean usesOwnWorlds() {
+        return ownWorlds;
+    }
+
+    // Checks once a second for arena worlds that have been idle for unloadAfterSeconds, see Arena.tickIdle(),
+    // and for a colorpartyworld nobody is in anymore (ColorPartyPlugin.unloadTemplateWorld())
+    public void startWorldUnloader(int unloadAfterSeconds) {
+        if (unloadAfterSeconds <= 0) return;
+        Bukkit.getScheduler().runTaskTimer(plugin, plugin.getProfiler().wrap("arena.unload-idle", () -> {
+            for (Arena arena : arenas) {
+                arena.tickIdle(unloadAfterSeconds);
+            }
+            plugin.unloadTemplateWorld();
+        }), 20L, 20L);
+    }
+
+    // Makes sure an arena will be free soon: unless one is already being reset, loads the world of
+    // an arena that has none loaded. Does nothing if every arena world is loaded (or in use).
+    public void ensureSpareArena() {
+        Arena unloaded = null;
+        for (Arena arena : arenas) {
+            if (arena.getPlayerCount() == 0 && arena.isResetting()) return;
+            if (unloaded == null && arena.hasOwnWorld() && arena.getWorld() == null) {
+                unloaded = arena;
+            }
+        }
+        if (unloaded != null) {
+            unloaded.prepareWorld();
+        }
+    }
+
+    public List<Arena> getArenas() {
+        return Collections.unmodifiableList(arenas);
+    }
+
+    public Arena get(int id) {
+        return id >= 0 && id < arenas.size() ? arenas.get(id) : null;
+    }
+
+    // The arena a player joined, or null
+    public Arena getArena(Player player) {
+        return getArena(player.getUniqueId());
+    }
+
+    public Arena getArena(UUID playerId) {
+        for (Arena arena : arenas) {
+            if (arena.isInGame(playerId)) {
+                return arena;
+            }
+        }
+        return null;
+    }
+
+    // The arena that owns the block column (x, z), or null
+    public Arena getArenaAt(int x, int z) {
+        for (Arena arena : arenas) {
+            if (arena.contains(x, z)) {
+                return arena;
+            }
+        }
+        return null;
+    }
+
+    // Where a new player goes: the fullest arena still waiting for its game to start,
+    // else an empty one, else the arena with the fewest players (they join the running game)
+    public Arena pickArena() {
+        Arena waiting = null;
+        Arena empty = null;
+        Arena smallest = null;
+        for (Arena arena : arenas) {
+            int players = arena.getPlayerCount();
+            boolean open = arena.isReady() && !arena.isGameInProgress() && !arena.isGameEnded();
+            if (open && players > 0 && (waiting == null || players > waiting.getPlayerCount())) {
+                waiting = arena;
+            }
+            if (open && players == 0 && empty == null) {
+                empty = arena;
+            }
+            if (smallest == null || players < smallest.getPlayerCount()) {
+                smallest = arena;
+            }
+        }
+        if (waiting != null) return waiting;
+        if (empty != null) return empty;
+        return smallest;
+    }
+
+    // The first arena that is reset, empty and has no game, or null. Used by the MatchmakingQueue.
+    public Arena findIdleArena() {
+        for (Arena arena : arenas) {
+            if (arena.isReady() && arena.getPlayerCount() == 0
+                    && !arena.isGameInProgress() && !arena.isGameEnded()) {
+                return arena;
+            }
+        }
+        return null;
+    }
+
+    public boolean isAnyGameInProgress() {
+        for (Arena arena : arenas) {
+            if (arena.isGameInProgress()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Resets every arena, see Arena.reset(). Completes when all of them are done.
+    public CompletableFuture<Void> resetAll(ArenaSnapshot.Mode snapshotMode) {
+        CompletableFuture<?>[] resets = new CompletableFuture<?>[arenas.size()];
+        for (int i = 0; i < arenas.size(); i++) {
+            resets[i] = arenas.get(i).reset(snapshotMode);
+        }
+        return CompletableFuture.allOf(resets);
+    }
+}
@@ -0,0 +1,372 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.plugin.Plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ArenaSnapshot is a copy of the whole arena (bridge, floor, lights) taken once with
+ * "/cp snapshot save", so the arena can be rebuilt from the plugin instead of copying a
+ * world folder by hand.
+ *
+ * Every distinct block state is stored once in a palette (BlockData.getAsString()), and every
+ * block as an index into it. Layout of an .cpsnap file, GZIP compressed:
+ *   4 bytes     magic "CPAS"
+ *   1 byte      format version (1)
+ *   6 ints      minX, minY, minZ, sizeX, sizeY, sizeZ
+ *   int         palette size, followed by that many UTF strings
+ *   indices     one byte per block if the palette has at most 256 entries, a short otherwise,
+ *               index = (y * sizeZ + z) * sizeX + x relative to the min corner
+ *
+ * capture() copies the chunks on the main thread as ChunkSnapshots, a few per tick, and reads
+ * the blocks from those on a background thread, so a capture doesn't stall the server.
+ *
+ * paste() writes the snapshot back chunk section by chunk section on the FloorWriter's ticks,
+ * sharing its blocks-per-tick budget with the floor writes of the other arenas. In diff mode
+ * it only writes blocks that differ from the snapshot. The same snapshot can be pasted shifted
+ * along x/z, which is how the other arenas get the same bridge. Blocks are written directly
+ * (not through FloorWriter.set()), callers re-capture the FloorState.
+ */
+public final class ArenaSnapshot {
+
+    public static final String FILE_NAME = "arena.cpsnap";
+
+    private static final byte[] MAGIC = { 'C', 'P', 'A', 'S' };
+    private static final byte VERSION = 1;
+
+    // Diff mode reads many more blocks than it writes, it may visit this many blocks per written one
+    private static final int DIFF_VISITS_PER_WRITE = 8;
+
+    // ChunkSnapshots taken per tick by capture(), each one copies a whole chunk
+    private static final int CHUNKS_PER_TICK = 4;
+
+    /** FULL writes every block, DIFF only the blocks that differ from the snapshot. */
+    public enum Mode {
+        FULL, DIFF
+    }
+
+    /** What a paste did, for the log and /cp snapshot. */
+    public record PasteResult(int visited, int written, int ticks) {
+    }
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final String[] palette;
+    private final short[] blocks;
+
+    // Palette parsed into BlockData on the first paste (main thread)
+    private BlockData[] resolved;
+
+    private ArenaSnapshot(int minX, int minY, int minZ, int sizeX, int sizeY, int sizeZ,
+                          String[] palette, short[] blocks) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.palette = palette;
+        this.blocks = blocks;
+    }
+
+    // Reads every block between the two corners (inclusive). Call on the main thread, the future
+    // completes on an executor thread.
+    public static CompletableFuture<ArenaSnapshot> capture(Plugin plugin, World world, int minX, int minY, int minZ,
+                                                           int maxX, int maxY, int maxZ, Executor executor) {
+        List<int[]> chunks = new ArrayList<>();
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                chunks.add(new int[] { cx, cz });
+            }
+        }
+        Map<Long, ChunkSnapshot> copies = new HashMap<>();
+        CompletableFuture<Map<Long, ChunkSnapshot>> copied = new CompletableFuture<>();
+        // Untimed when another plugin captures
+        TaskProfiler profiler = plugin instanceof ColorPartyPlugin colorParty ? colorParty.getProfiler() : null;
+
+        new TaskProfiler.ProfiledRunnable(profiler, "snapshot.capture") {
+            int next = 0;
+
+            @Override
+            protected void tick() {
+                for (int i = 0; i < CHUNKS_PER_TICK && next < chunks.size(); i++, next++) {
+                    int[] chunk = chunks.get(next);
+                    copies.put(chunkKey(chunk[0], chunk[1]), world.getChunkAt(chunk[0], chunk[1]).getChunkSnapshot());
+                }
+                if (next >= chunks.size()) {
+                    cancel();
+                    copied.complete(copies);
+                }
+            }
+        }.runTaskTimer(plugin, 0L, 1L);
+
+        return copied.thenApplyAsync(snapshots -> read(snapshots, minX, minY, minZ, maxX, maxY, maxZ), executor);
+    }
+
+    private static ArenaSnapshot read(Map<Long, ChunkSnapshot> chunks, int minX, int minY, int minZ,
+                                      int maxX, int maxY, int maxZ) {
+        int sizeX = maxX - minX + 1;
+        int sizeY = maxY - minY + 1;
+        int sizeZ = maxZ - minZ + 1;
+        Map<String, Integer> indexByState = new HashMap<>();
+        List<String> palette = new ArrayList<>();
+        short[] blocks = new short[sizeX * sizeY * sizeZ];
+        int i = 0;
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    int wx = minX + x;
+                    int wz = minZ + z;
+                    ChunkSnapshot chunk = chunks.get(chunkKey(wx >> 4, wz >> 4));
+                    String state = chunk.getBlockData(wx & 15, minY + y, wz & 15).getAsString();
+                    Integer index = indexByState.get(state);
+                    if (index == null) {
+                        index = palette.size();
+                        if (index > 0xFFFF) {
+                            throw new IllegalStateException("Arena has more than 65536 different block states");
+                        }
+                        indexByState.put(state, index);
+                        palette.add(state);
+                    }
+                    blocks[i++] = (short) (int) index;
+                }
+            }
+        }
+        return new ArenaSnapshot(minX, minY, minZ, sizeX, sizeY, sizeZ, palette.toArray(new String[0]), blocks);
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return (long) cx << 32 | (cz & 0xFFFFFFFFL);
+    }
+
+    public static ArenaSnapshot read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path))))) {
+            for (byte b : MAGIC) {
+                if (in.readByte() != b) {
+                    throw new IOException(path.getFileName() + " is not an arena snapshot");
+                }
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException(path.getFileName() + " has unsupported snapshot version " + version);
+            }
+            int minX = in.readInt();
+            int minY = in.readInt();
+            int minZ = in.readInt();
+            int sizeX = in.readInt();
+            int sizeY = in.readInt();
+            int sizeZ = in.readInt();
+            if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0 || (long) sizeX * sizeY * sizeZ > 16_000_000L) {
+                throw new IOException(path.getFileName() + " has invalid size " + sizeX + "x" + sizeY + "x" + sizeZ);
+            }
+            String[] palette = new String[in.readInt()];
+            if (palette.length == 0 || palette.length > 0x10000) {
+                throw new IOException(path.getFileName() + " has invalid palette size " + palette.length);
+            }
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = in.readUTF();
+            }
+            short[] blocks = new short[sizeX * sizeY * sizeZ];
+            boolean wide = palette.length > 256;
+            for (int i = 0; i < blocks.length; i++) {
+                int index = wide ? in.readUnsignedShort() : in.readUnsignedByte();
+                if (index >= palette.length) {
+                    throw new IOException(path.getFileName() + " has palette index " + index + " out of range");
+                }
+                blocks[i] = (short) index;
+            }
+            return new ArenaSnapshot(minX, minY, minZ, sizeX, sizeY, sizeZ, palette, blocks);
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(path))))) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(minX);
+            out.writeInt(minY);
+            out.writeInt(minZ);
+            out.writeInt(sizeX);
+            out.writeInt(sizeY);
+            out.writeInt(sizeZ);
+            out.writeInt(palette.length);
+            for (String state : palette) {
+                out.writeUTF(state);
+            }
+            boolean wide = palette.length > 256;
+            for (short index : blocks) {
+                if (wide) {
+                    out.writeShort(index);
+                } else {
+                    out.writeByte(index);
+                }
+            }
+        }
+    }
+
+    public int getBlockCount() {
+        return blocks.length;
+    }
+
+    public int getPaletteSize() {
+        return palette.length;
+    }
+
+    public String describeBounds() {
+        return "(" + minX + ", " + minY + ", " + minZ + ") to ("
+                + (minX + sizeX - 1) + ", " + (minY + sizeY - 1) + ", " + (minZ + sizeZ - 1) + ")";
+    }
+
+    // Writes the snapshot into the world, one chunk section after another, within the writer's
+    // per-tick budget. In DIFF mode blocks that already match are left alone.
+    public CompletableFuture<PasteResult> paste(Plugin plugin, FloorWriter writer, World world, Mode mode) {
+        return paste(plugin, writer, world, mode, 0, 0);
+    }
+
+    // Same, with every block moved by (offsetX, offsetZ)
+    public CompletableFuture<PasteResult> paste(Plugin plugin, FloorWriter writer, World world, Mode mode,
+                                                int offsetX, int offsetZ) {
+        BlockData[] data = resolve(plugin);
+        boolean diff = mode == Mode.DIFF;
+        int baseX = minX + offsetX;
+        int baseZ = minZ + offsetZ;
+        List<int[]> sections = sections(baseX, baseZ);
+        CompletableFuture<PasteResult> future = new CompletableFuture<>();
+
+        writer.run(new FloorWriter.Job() {
+            int sectionIndex = 0;
+            // Cursor inside the current section, relative to the snapshot corner
+            int x = -1;
+            int y;
+            int z;
+            int visited;
+            int written;
+            int ticks;
+            boolean done;
+
+            // A written block uses one unit of the budget, DIFF_VISITS_PER_WRITE visits use one too
+            @Override
+            public int write(int budget) {
+                ticks++;
+                int visitBudget = diff ? budget * DIFF_VISITS_PER_WRITE : budget;
+                int visitedThisTick = 0;
+                int writtenThisTick = 0;
+                while (visitedThisTick < visitBudget && writtenThisTick < budget) {
+                    if (!advance()) {
+                        done = true;
+                        future.complete(new PasteResult(visited, written, ticks));
+                        break;
+                    }
+                    BlockData target = data[blocks[(y * sizeZ + z) * sizeX + x] & 0xFFFF];
+                    Block block = world.getBlockAt(baseX + x, minY + y, baseZ + z);
+                    if (!diff || !block.getBlockData().equals(target)) {
+                        block.setBlockData(target, false);
+                        written++;
+                        writtenThisTick++;
+                    }
+                    visited++;
+                    visitedThisTick++;
+                }
+                return Math.min(budget, writtenThisTick
+                        + (visitedThisTick - writtenThisTick + DIFF_VISITS_PER_WRITE - 1) / DIFF_VISITS_PER_WRITE);
+            }
+
+            @Override
+            public boolean isDone() {
+                return done;
+            }
+
+            @Override
+            public void cancel() {
+                done = true;
+                future.cancel(false);
+            }
+
+            // Moves the cursor to the next block, x fastest, then z, then y, section by section
+            private boolean advance() {
+                while (sectionIndex < sections.size()) {
+                    int[] s = sections.get(sectionIndex);
+                    if (x < 0) {
+                        x = s[0];
+                        y = s[1];
+                        z = s[2];
+                        return true;
+                    }
+                    if (++x <= s[3]) return true;
+                    x = s[0];
+                    if (++z <= s[5]) return true;
+                    z = s[2];
+                    if (++y <= s[4]) return true;
+                    sectionIndex++;
+                    x = -1;
+                }
+                return false;
+            }
+        });
+        return future;
+    }
+
+    // The chunk sections the snapshot covers when pasted with its min corner at (minX, minZ),
+    // as relative {x0, y0, z0, x1, y1, z1} boxes
+    private List<int[]> sections(int minX, int minZ) {
+        List<int[]> sections = new ArrayList<>();
+        int maxX = minX + sizeX - 1;
+        int maxY = minY + sizeY - 1;
+        int maxZ = minZ + sizeZ - 1;
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                for (int cy = minY >> 4; cy <= maxY >> 4; cy++) {
+                    sections.add(new int[] {
+                            Math.max(cx << 4, minX) - minX, Math.max(cy << 4, minY) - minY, Math.max(cz << 4, minZ) - minZ,
+                            Math.min((cx << 4) + 15, maxX) - minX, Math.min((cy << 4) + 15, maxY) - minY,
+                            Math.min((cz << 4) + 15, maxZ) - minZ
+                    });
+                }
+            }
+        }
+        return sections;
+    }
+
+    private BlockData[] resolve(Plugin plugin) {
+        if (resolved == null) {
+            BlockData[] data = new BlockData[palette.length];
+            for (int i = 0; i < palette.length; i++) {
+                try {
+                    data[i] = Bukkit.createBlockData(palette[i]);
+                } catch (IllegalArgumentException e) {
+                    // Saved by a server version that knows blocks this one doesn't
+                    plugin.getLogger().warning("Unknown block state in arena snapshot, using air: " + palette[i]);
+                    data[i] = Bukkit.createBlockData(Material.AIR);
+                }
+            }
+            resolved = data;
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * BeaconRegistry keeps track of the powerup beacons on the dance floor: where each one
+ * was placed and which powerup it gives (rolled when it spawns).
+ *
+ * Removing the beacons at the freeze or the end of a game clears exactly the registered
+ * positions instead of scanning the whole layer above the floor, and other code (HUD
+ * markers, effects that must not overwrite beacons) can ask for the live set with getBeacons().
+ * Only one beacon is registered per cell, spawn() on an occupied cell does nothing.
+ * All methods must be called on the main thread.
+ */
+public class BeaconRegistry {
+
+    /** A beacon that is currently in the world. */
+    public record Beacon(World world, int x, int y, int z, int powerup) {
+        public Location getLocation() {
+            return new Location(world, x, y, z);
+        }
+    }
+
+    private final FloorWriter writer;
+    // Packed position -> beacon, in spawn order
+    private final Map<Long, Beacon> beacons = new LinkedHashMap<>();
+
+    public BeaconRegistry(FloorWriter writer) {
+        this.writer = writer;
+    }
+
+    // Places a beacon and registers it. Returns null if the cell already has a registered beacon.
+    public Beacon spawn(World world, int x, int y, int z, int powerup) {
+        long key = key(x, y, z);
+        Beacon existing = beacons.get(key);
+        if (existing != null && existing.world().equals(world)) return null;
+        Beacon beacon = new Beacon(world, x, y, z, powerup);
+        beacons.put(key, beacon);
+        writer.set(world, x, y, z, Material.BEACON);
+        return beacon;
+    }
+
+    public Beacon get(Block block) {
+        Beacon beacon = beacons.get(key(block.getX(), block.getY(), block.getZ()));
+        return beacon != null && beacon.world().equals(block.getWorld()) ? beacon : null;
+    }
+
+    // Breaks a beacon (e.g. a player clicked it) and returns its entry, or null if it wasn't registered
+    public Beacon remove(Block block) {
+        Beacon beacon = get(block);
+        if (beacon != null) {
+            beacons.remove(key(beacon.x(), beacon.y(), beacon.z()));
+        }
+        writer.set(block, Material.AIR);
+        return beacon;
+    }
+
+    // The live beacons, read-only
+    public Collection<Beacon> getBeacons() {
+        return Collections.unmodifiableCollection(beacons.values());
+    }
+
+    public int size() {
+        return beacons.size();
+    }
+
+    // Removes every registered beacon from the world
+    public CompletableFuture<Integer> clear() {
+        if (beacons.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        World world = null;
+        FloorWriter.Batch batch = null;
+        CompletableFuture<Integer> result = CompletableFuture.completedFuture(0);
+        for (Beacon beacon : beacons.values()) {
+            // All beacons normally share one world, start a new batch if they don't
+            if (!beacon.world().equals(world)) {
+                if (batch != null) {
+                    result = result.thenCombine(batch.submit(), Integer::sum);
+                }
+                world = beacon.world();
+                batch = writer.batch(world);
+            }
+            if (writer.getType(world, beacon.x(), beacon.y(), beacon.z()) == Material.BEACON) {
+                batch.add(beacon.x(), beacon.y(), beacon.z(), Material.AIR);
+            }
+        }
+        beacons.clear();
+        return result.thenCombine(batch.submit(), Integer::sum);
+    }
+
+    // Drops the entries without touching the world, e.g. after the arena was rebuilt
+    public void forget() {
+        beacons.clear();
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+}
@@ -1,167 +1,187 @@
 package com.example.colorpartyplugin;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import java.io.File;
-import java.io.FileReader;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Random;
-import java.util.Set;
-import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
 
 public class BuildVariations {
     // Static plugin reference
     private static ColorPartyPlugin plugin;
 
-    // Random generator for beacons, floors, colors, etc.
-    private static final Random random = new Random();
-
     // Setter to initialize the plugin reference
     public static void setPlugin(ColorPartyPlugin instance) {
         plugin = instance;
     }
 
-    public static Set<Material> buildVariationRandomScatter(World w, int sx, int sz, int size, int y) {
-        Material[] colors = pickClayColors(16);
-        Set<Material> used = new HashSet<>();
+    // Registers the 19 built-in variations. The random number generator is passed in by the
+    // caller, the designer floors are served from the FloorLibrary.
+    public static void registerVariations(FloorVariationRegistry registry) {
+        int weight = FloorVariationRegistry.DEFAULT_WEIGHT;
+        registry.register(FloorVariation.procedural("random_scatter", weight, FloorVariation.Cost.CHEAP,
+                BuildVariations::buildVariationRandomScatter));
+        registry.register(FloorVariation.procedural("4x4_squares", weight, FloorVariation.Cost.CHEAP,
+                BuildVariations::buildVariation4x4Squares));
+        registry.register(FloorVariation.procedural("circles", weight, FloorVariation.Cost.EXPENSIVE,
+                BuildVariations::buildVariationCircles));
+        registry.register(FloorVariation.procedural("diagonal_stripes", weight, FloorVariation.Cost.CHEAP,
+                BuildVariations::buildVariationDiagonalStripes));
+        registry.register(FloorVariation.procedural("one_wide_diagonal", weight, FloorVariation.Cost.CHEAP,
+                BuildVariations::buildVariationOneWideDiagonal));
+        registry.register(FloorVariation.procedural("overlapping_circles", weight, FloorVariation.Cost.EXPENSIVE,
+                BuildVariations::buildVariationOverlappingCircles));
+        registry.register(FloorVariation.procedural("square_stripes", weight, FloorVariation.Cost.MODERATE,
+                random -> buildVariationSquareStripes()));
+        registry.register(FloorVariation.procedural("stripes_8x8_repeat", weight, FloorVariation.Cost.CHEAP,
+                random -> buildVariationStripes8x8Repeat()));
+
+        // JSON FLOORS
+        String[] files = {
+                "floor_variation_1", "floor_hearts", "floor_carrots", "floor_turtles",
+                "floor_concentric_squares", "floor_connected_rings", "floor_stars",
+                "floor_4section_bricks", "floor_9squares", "floor_3shapes", "floor_5circles"
+        };
+        for (String floorName : files) {
+            registry.register(FloorVariation.fromFile(floorName, weight));
+        }
+    }
+
+    public static FloorLayout buildVariationRandomScatter(RandomGenerator random) {
+        Material[] colors = pickClayColors(16, random);
+        FloorLayout.Builder floor = new FloorLayout.Builder();
+        int size = FloorLayout.SIZE;
         for (int x = 0; x < size; x++) {
             for (int z = 0; z < size; z++) {
                 Material c = colors[random.nextInt(colors.length)];
-                w.getBlockAt(sx + x, y, sz + z).setType(c);
-                used.add(c);
+                floor.set(x, z, c);
             }
         }
-        return used;
+        return floor.build();
     }
 
-    public static Set<Material> buildVariation4x4Squares(World w, int sx, int sz, int size, int y) {
-        Material[] colors = pickClayColors(12);
-        Set<Material> used = new HashSet<>();
+    public static FloorLayout buildVariation4x4Squares(RandomGenerator random) {
+        Material[] colors = pickClayColors(12, random);
+        FloorLayout.Builder floor = new FloorLayout.Builder();
+        int size = FloorLayout.SIZE;
         int sq = 4;
         for (int bx = 0; bx < size; bx += sq) {
             for (int bz = 0; bz < size; bz += sq) {
                 Material color = colors[random.nextInt(colors.length)];
-                used.add(color);
                 for (int dx = 0; dx < sq; dx++) {
                     for (int dz = 0; dz < sq; dz++) {
-                        w.getBlockAt(sx + bx + dx, y, sz + bz + dz).setType(color);
+                        floor.set(bx + dx, bz + dz, color);
                     }
                 }
             }
         }
-        return used;
+        return floor.build();
     }
 
-    public static Set<Material> buildVariationCircles(World w, int sx, int sz, int size, int y) {
-        Material[] colors = pickClayColors(5);
-        Set<Material> used = new HashSet<>();
+    public static FloorLayout buildVariationCircles(RandomGenerator random) {
+        Material[] colors = pickClayColors(5, random);
+        FloorLayout.Builder floor = new FloorLayout.Builder();
+        int size = FloorLayout.SIZE;
         Material bg = colors[random.nextInt(colors.length)];
-        used.add(bg);
         for (int xx = 0; xx < size; xx++) {
             for (int zz = 0; zz < size; zz++) {
-                w.getBlockAt(sx + xx, y, sz + zz).setType(bg);
+                floor.set(xx, zz, bg);
             }
         }
 
         int circleCount = 60;
         int radius = 2;
+        // Compare squared distances, same result as sqrt(dx^2 + dz^2) <= limit
+        double fillLimit = (radius - 0.5) * (radius - 0.5);
+        double ringLimit = (radius + 0.4) * (radius + 0.4);
         for (int i = 0; i < circleCount; i++) {
-            int cx = sx + radius + random.nextInt(size - radius * 2);
-            int cz = sz + radius + random.nextInt(size - radius * 2);
+            int cx = radius + random.nextInt(size - radius * 2);
+            int cz = radius + random.nextInt(size - radius * 2);
 
             Material circleColor = colors[random.nextInt(colors.length)];
-            used.add(circleColor);
             Material ringColor = colors[random.nextInt(colors.length)];
-            used.add(ringColor);
 
             for (int xx = cx - radius; xx <= cx + radius; xx++) {
                 for (int zz = cz - radius; zz <= cz + radius; zz++) {
-                    double dist = Math.sqrt(Math.pow(xx - cx, 2) + Math.pow(zz - cz, 2));
-                    if (dist <= radius - 0.5) {
-                        w.getBlockAt(xx, y, zz).setType(circleColor);
-                    } else if (dist <= radius + 0.4) {
-                        w.getBlockAt(xx, y, zz).setType(ringColor);
+                    int dx = xx - cx;
+                    int dz = zz - cz;
+                    int dist2 = dx * dx + dz * dz;
+                    if (dist2 <= fillLimit) {
+                        floor.set(xx, zz, circleColor);
+                    } else if (dist2 <= ringLimit) {
+                        floor.set(xx, zz, ringColor);
                     }
                 }
             }
         }
-        return used;
+        return floor.build();
     }
 
-    public static Set<Material> buildVariationDiagonalStripes(World w, int sx, int sz, int size, int y) {
-        Material[] colors = pickClayColors(9);
-        Set<Material> used = new HashSet<>();
+    public static FloorLayout buildVariationDiagonalStripes(RandomGenerator random) {
+        Material[] colors = pickClayColors(9, random);
+        FloorLayout.Builder floor = new FloorLayout.Builder();
+        int size = FloorLayout.SIZE;
         int stripeWidth = random.nextInt(2) + 4; // 4-5
         for (int x = 0; x < size; x++) {
             for (int z = 0; z < size; z++) {
                 int stripeIndex = (x + z) / stripeWidth;
                 Material c = colors[stripeIndex % colors.length];
-                used.add(c);
-                w.getBlockAt(sx + x, y, sz + z).setType(c);
+                floor.set(x, z, c);
             }
         }
-        return used;
+        return floor.build();
     }
 
-    public static Set<Material> buildVariationOneWideDiagonal(World w, int sx, int sz, int size, int y) {
-        Material[] colors = pickClayColors(16);
-        Set<Material> used = new HashSet<>();
+    public static FloorLayout buildVariationOneWideDiagonal(RandomGenerator random) {
+        Material[] colors = pickClayColors(16, random);
+        FloorLayout.Builder floor = new FloorLayout.Builder();
+        int size = FloorLayout.SIZE;
         for (int x = 0; x < size; x++) {
             for (int z = 0; z < size; z++) {
                 int diag = Math.abs(x - z);
                 Material c = colors[diag % colors.length];
-                used.add(c);
-                w.getBlockAt(sx + x, y, sz + z).setType(c);
+                floor.set(x, z, c);
             }
         }
-        return used;
+        return floor.build();
     }
 
-    public static Set<Material> buildVariationOverlappingCircles(World w, int sx, int sz, int size, int y) {
-        Material[] colors = pickClayColors(9);
-        Set<Material> used = new HashSet<>();
-        int centerX = sx + size / 2;
-        int centerZ = sz + size / 2;
+    public static FloorLayout buildVariationOverlappingCircles(RandomGenerator random) {
+        Material[] colors = pickClayColors(9, random);
+        FloorLayout.Builder floor = new FloorLayout.Builder();
+        int size = FloorLayout.SIZE;
+        int centerX = size / 2;
+        int centerZ = size / 2;
 
         Material bg = colors[0];
-        used.add(bg);
         for (int xx = 0; xx < size; xx++) {
             for (int zz = 0; zz < size; zz++) {
-                w.getBlockAt(sx + xx, y, sz + zz).setType(bg);
+                floor.set(xx, zz, bg);
             }
         }
         int[] radii = {30, 20, 10, 5};
         for (int i = 0; i < radii.length; i++) {
             Material circleColor = colors[Math.min(i + 1, colors.length - 1)];
-            used.add(circleColor);
             int r = radii[i];
             for (int xx = centerX - r; xx <= centerX + r; xx++) {
                 for (int zz = centerZ - r; zz <= centerZ + r; zz++) {
-                    if (xx < sx || xx >= sx + size || zz < sz || zz >= sz + size) {
+                    if (xx < 0 || xx >= size || zz < 0 || zz >= size) {
                         continue;
                     }
-                    double dist = Math.sqrt(Math.pow(xx - centerX, 2) + Math.pow(zz - centerZ, 2));
-                    if (dist <= r) {
-                        w.getBlockAt(xx, y, zz).setType(circleColor);
+                    int dx = xx - centerX;
+                    int dz = zz - centerZ;
+                    if (dx * dx + dz * dz <= r * r) {
+                        floor.set(xx, zz, circleColor);
                     }
                 }
             }
         }
-        return used;
+        return floor.build();
     }
 
-    public static Set<Material> buildVariationSquareStripes(World w, int sx, int sz, int size, int y) {
-        Set<Material> used = new HashSet<>();
+    public static FloorLayout buildVariationSquareStripes() {
+        FloorLayout.Builder floor = new FloorLayout.Builder();
+        int size = FloorLayout.SIZE;
 
         // Define a 4×4 "pattern grid" of colors (each cell = 4×4 blocks).
         // Replicate this 16×16 pattern grid 4 times in each direction
@@ -180,7 +200,6 @@ public class BuildVariations {
         for (int patZ = 0; patZ < 4; patZ++) {
             for (int patX = 0; patX < 4; patX++) {
                 Material color = pattern[patZ][patX];
-                used.add(color);
 
                 // Fill the 4×4 cell
                 for (int dz = 0; dz < 4; dz++) {
@@ -198,18 +217,19 @@ public class BuildVariations {
                                 int finalX = blockX + repeatX * 16;
                                 int finalZ = blockZ + repeatZ * 16;
 
-                                w.getBlockAt(sx + finalX, y, sz + finalZ).setType(color);
+                                floor.set(finalX, finalZ, color);
                             }
                         }
                     }
                 }
             }
         }
-        return used;
+        return floor.build();
     }
 
-    public static Set<Material> buildVariationStripes8x8Repeat(World w, int sx, int sz, int size, int y) {
-        Set<Material> used = new HashSet<>();
+    public static FloorLayout buildVariationStripes8x8Repeat() {
+        FloorLayout.Builder floor = new FloorLayout.Builder();
+        int size = FloorLayout.SIZE;
 
         // Define 8 stripes: 4 color pairs repeated twice
         Material[][] stripes = {
@@ -233,192 +253,60 @@ public class BuildVariations {
                 Material color = (sqY % 2 == 0)
                         ? stripes[stripeIndex][0]
                         : stripes[stripeIndex][1];
-                used.add(color);
 
                 // Top-left corner of this 8×8 block
-                int blockStartX = sx + (stripeIndex * 8);
-                int blockStartZ = sz + (sqY * 8);
+                int blockStartX = stripeIndex * 8;
+                int blockStartZ = sqY * 8;
 
                 // Fill an 8×8 region
                 for (int dx = 0; dx < 8; dx++) {
                     for (int dz = 0; dz < 8; dz++) {
-                        w.getBlockAt(blockStartX + dx, y, blockStartZ + dz).setType(color);
+                        floor.set(blockStartX + dx, blockStartZ + dz, color);
                     }
                 }
             }
         }
-        return used;
+        return floor.build();
     }
 
-    // Helper method to load layout from a JSON file.
-    // Retains logging messages that include the file name.
-    private static Map<Material, List<int[]>> loadLayoutFromJson(File file, String fileName) {
-        plugin.getLogger().info("Loading layout from file: " + file.getAbsolutePath());
-        try {
-            JsonObject root = new Gson().fromJson(new FileReader(file), JsonObject.class);
-            if (root == null) {
-                plugin.getLogger().warning(fileName + " parse returned null. Fallback to light gray.");
-                return null;
-            }
-            Map<Material, List<int[]>> layoutMap = new HashMap<>();
-            int totalCoordsCount = 0;
-            for (String key : root.keySet()) {
-                Material mat = Material.matchMaterial(key);
-                if (mat == null) {
-                    plugin.getLogger().warning("Unknown Material in " + fileName + ": " + key);
-                    continue;
-                }
-                JsonArray coordsArr = root.getAsJsonArray(key);
-                List<int[]> coordsList = new ArrayList<>();
-                for (JsonElement elem : coordsArr) {
-                    if (!elem.isJsonObject()) continue;
-                    JsonObject obj = elem.getAsJsonObject();
-                    if (!obj.has("x") || !obj.has("z")) continue;
-                    int lx = obj.get("x").getAsInt();
-                    int lz = obj.get("z").getAsInt();
-                    coordsList.add(new int[] { lx, lz });
-                }
-                // Only store the material if it has at least one coordinate.
-                if (!coordsList.isEmpty()) {
-                    layoutMap.put(mat, coordsList);
-                    totalCoordsCount += coordsList.size();
-                    plugin.getLogger().info("Loaded " + coordsList.size() + " coordinates for " + key + " from " + fileName);
-                }
-            }
-            plugin.getLogger().info("Total coordinates loaded from " + fileName + ": " + totalCoordsCount);
-            return layoutMap;
-        } catch (Exception e) {
-            plugin.getLogger().severe("Error reading " + fileName + ": " + e.getMessage());
-            return null;
-        }
-    }
-
-    // This helper method contains the shared logic for clearing the region,
-    // creating the floor array, rotating coordinates, and placing blocks.
-    // The only parameter that changes per variation is the JSON file name.
-    private static Set<Material> buildVariationJsonFloorWithFile(World w, int sx, int sz, int size, int y, String jsonFileName) {
-        Set<Material> used = new HashSet<>();
-
-        // Attempt to load the JSON file from the plugin folder.
-        File layoutFile = new File(plugin.getDataFolder(), jsonFileName); // adjust path if needed
-        if (!layoutFile.exists()) {
-            plugin.getLogger().warning(jsonFileName + " not found for buildVariationJsonFloor. Using fallback.");
-            fillLightGrayFallback(w, sx, sz, size, y);
-            return used; // return empty set
-        }
-
-        // Parse the JSON into a map: Material -> List of {x, z} coordinates.
-        Map<Material, List<int[]>> layoutMap = loadLayoutFromJson(layoutFile, jsonFileName);
-        if (layoutMap == null || layoutMap.isEmpty()) {
-            plugin.getLogger().warning(jsonFileName + " returned an empty layout. Using fallback.");
-            fillLightGrayFallback(w, sx, sz, size, y);
-            return used;
-        }
-
-        // Clear the 64×64 region.
-        for (int xx = 0; xx < size; xx++) {
-            for (int zz = 0; zz < size; zz++) {
-                w.getBlockAt(sx + xx, y, sz + zz).setType(Material.AIR);
-            }
-        }
-
-        // Create a 2D array for the floor, defaulting to LIGHT_GRAY_TERRACOTTA.
-        Material[][] floor = new Material[size][size];
-        for (int xx = 0; xx < size; xx++) {
-            for (int zz = 0; zz < size; zz++) {
-                floor[xx][zz] = Material.LIGHT_GRAY_TERRACOTTA;
-            }
-        }
-
-        // Overwrite the floor array using the JSON layout with a 180-degree rotation.
-        // For each coordinate (lx, lz) from JSON, calculate new positions:
-        // newX = size - 1 - lx, newZ = size - 1 - lz.
-        for (Map.Entry<Material, List<int[]>> entry : layoutMap.entrySet()) {
-            Material mat = entry.getKey();
-            // Add this material to the used set
-            used.add(mat);
-            for (int[] coord : entry.getValue()) {
-                int lx = coord[0];
-                int lz = coord[1];
-                if (lx >= 0 && lx < size && lz >= 0 && lz < size) {
-                    int newX = size - 1 - lx;
-                    int newZ = size - 1 - lz;
-                    floor[newX][newZ] = mat;
-                }
-            }
-        }
-
-        // Place the floor array into the world.
-        for (int xx = 0; xx < size; xx++) {
-            for (int zz = 0; zz < size; zz++) {
-                w.getBlockAt(sx + xx, y, sz + zz).setType(floor[xx][zz]);
-            }
+    // This helper method returns a pre-parsed layout from the plugin's FloorLibrary.
+    // The only parameter that changes per variation is the floor name
+    // (floor_<name>.cpfloor, or floor_<name>.json from the designer).
+    private static FloorLayout buildVariationJsonFloorWithFile(String floorName) {
+        // Parsed once and served from memory, the library re-parses the file when it changes.
+        FloorLayout layout = plugin.getFloorLibrary().get(floorName);
+        if (layout == null) {
+            plugin.getLogger().warning(floorName + " could not be loaded for buildVariationJsonFloor. Using fallback.");
+            return FloorLayout.LIGHT_GRAY;
         }
-
-        return used;
-    }
-
-    // JSON FLOORS
-    public static Set<Material> buildVariationGameOver(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_gameover.json");
-    }
-
-    public static Set<Material> buildVariationJson1(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_variation_1.json");
-    }
-
-    public static Set<Material> buildVariationJsonHearts(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_hearts.json");
-    }
-
-    public static Set<Material> buildVariationJsonCarrots(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_carrots.json");
-    }
-
-    public static Set<Material> buildVariationJsonTurtles(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_turtles.json");
+        return layout;
     }
 
-    public static Set<Material> buildVariationJsonConcentricSquares(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_concentric_squares.json");
+    // Designs from the data folder, see FloorVariation.fromFile()
+    public static FloorLayout buildVariationFromFile(String floorName) {
+        return buildVariationJsonFloorWithFile(floorName);
     }
 
-    public static Set<Material> buildVariationJsonConnectedRings(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_connected_rings.json");
+    // Shown when the game ends, not part of the random rotation
+    public static FloorLayout buildVariationGameOver() {
+        return buildVariationJsonFloorWithFile("floor_gameover");
     }
 
-    public static Set<Material> buildVariationJsonStars(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_stars.json");
-    }
-
-    public static Set<Material> buildVariationJson4SectionBricks(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_4section_bricks.json");
-    }
-
-    public static Set<Material> buildVariationJson9Squares(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_9squares.json");
-    }
-
-    public static Set<Material> buildVariationJson3Shapes(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_3shapes.json");
-    }
-
-    public static Set<Material> buildVariationJson5Circles(World w, int sx, int sz, int size, int y) {
-        return buildVariationJsonFloorWithFile(w, sx, sz, size, y, "floor_5circles.json");
-    }
-
-
-    //Fallback method to fill the entire 64×64 region with LIGHT_GRAY_TERRACOTTA.
-    public static void fillLightGrayFallback(World w, int sx, int sz, int size, int y) {
-        for (int xx = 0; xx < size; xx++) {
-            for (int zz = 0; zz < size; zz++) {
-                w.getBlockAt(sx + xx, y, sz + zz).setType(Material.LIGHT_GRAY_TERRACOTTA);
-            }
+    // Places a layout into the world, (sx, sz) is the floor's start corner.
+    // Every builder above produces a FloorLayout, this is the only place floor blocks are written.
+    // Only tiles that differ from the current floor are written, see FloorApplier.
+    // The future completes once the FloorWriter has written every changed tile.
+    public static CompletableFuture<Integer> placeLayout(World w, int sx, int sz, int y, FloorLayout layout) {
+        // A real floor replaces any pattern that was only shown to that arena's clients
+        Arena arena = plugin.getArenaManager().getArenaAt(sx, sz);
+        if (arena != null) {
+            arena.getClientFloorRenderer().clear();
         }
+        return FloorApplier.apply(plugin.getFloorWriter(), w, sx, sz, y, layout);
     }
 
     // pickClayColors: returns up to 'count' random terracotta from the 16 variants
-    public static Material[] pickClayColors(int count) {
+    public static Material[] pickClayColors(int count, RandomGenerator random) {
         Material[] fullSet = {
                 Material.WHITE_TERRACOTTA, Material.ORANGE_TERRACOTTA, Material.MAGENTA_TERRACOTTA,
                 Material.LIGHT_BLUE_TERRACOTTA, Material.YELLOW_TERRACOTTA, Material.LIME_TERRACOTTA,
@@ -427,9 +315,14 @@ public class BuildVariations {
                 Material.BROWN_TERRACOTTA, Material.GREEN_TERRACOTTA, Material.RED_TERRACOTTA,
                 Material.BLACK_TERRACOTTA
         };
-        List<Material> list = new ArrayList<>(Arrays.asList(fullSet));
-        Collections.shuffle(list, random);
-        if (count > list.size()) count = list.size();
-        return list.subList(0, count).toArray(new Material[0]);
+        if (count > fullSet.length) count = fullSet.length;
+        // Partial Fisher-Yates: only the first count slots need to be shuffled
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(fullSet.length - i);
+            Material swap = fullSet[i];
+            fullSet[i] = fullSet[j];
+            fullSet[j] = swap;
+        }
+        return Arrays.copyOf(fullSet, count);
     }
 }
@@ -0,0 +1,295 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * ClientFloorRenderer shows a round's floor pattern to players with block-change packets
+ * instead of writing it into the world ("client-side-floor.enabled" in config.yml).
+ *
+ * While a pattern is shown, the server world holds a solid NEUTRAL floor. Players stand on it
+ * the same way, but see the pattern. At the freeze, freeze() only writes AIR where players
+ * don't see the safe color. The safe tiles stay NEUTRAL in the world and keep showing the
+ * pattern, so the next round only has to fill the holes with NEUTRAL again: per round the
+ * server writes the tiles that fell and nothing else. Tiles a powerup recolored in the world
+ * during the round (color cow, color trail) keep their world color.
+ *
+ * The client forgets the pattern whenever the server sends it the chunk again (the chunk was
+ * loaded again, a teleport, a respawn, a world change), so in those cases it is sent again.
+ *
+ * Crazy mode keeps writing the floor for real, its effects move and recolor world blocks.
+ * Every arena has its own renderer, the pattern is only sent to that arena's players.
+ */
+public class ClientFloorRenderer implements Listener {
+
+    // Placeholder the server world holds under a client-side pattern, not a palette color
+    public static final Material NEUTRAL = Material.WHITE_CONCRETE;
+
+    private final ColorPartyPlugin plugin;
+    private final FloorWriter writer;
+    private final boolean enabled;
+    // The arena's shadow floor and the players who see its pattern
+    private final FloorState floorState;
+    private final Supplier<Collection<Player>> viewers;
+
+    // The pattern players are currently shown, null when the world floor is authoritative
+    private FloorLayout pattern;
+    private World world;
+    private int startX;
+    private int startZ;
+    private int floorY;
+
+    // One reusable block snapshot per tile, only their BlockData changes between rounds
+    private BlockState[] states;
+    private World statesWorld;
+
+    // Incremented on every show/clear, so a delayed send for an old round does nothing
+    private int generation = 0;
+
+    public ClientFloorRenderer(ColorPartyPlugin plugin, FloorWriter writer, boolean enabled, FloorState floorState,
+                               Supplier<Collection<Player>> viewers) {
+        this.plugin = plugin;
+        this.writer = writer;
+        this.enabled = enabled;
+        this.floorState = floorState;
+        this.viewers = viewers;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // True while players see a pattern that is not in the world
+    public boolean isActive() {
+        return pattern != null;
+    }
+
+    // Neutral floor in the world, then the pattern to the arena's players once the
+    // world writes have been sent (otherwise those block changes would replace the pattern).
+    // Tiles that are NEUTRAL already (the safe tiles of the last round) are not written again.
+    public void show(World w, int sx, int sz, int y, FloorLayout layout) {
+        pattern = layout;
+        world = w;
+        startX = sx;
+        startZ = sz;
+        floorY = y;
+        int round = ++generation;
+
+        FloorWriter.Batch batch = writer.batch(w);
+        int size = FloorLayout.SIZE;
+        for (int xx = 0; xx < size; xx++) {
+            for (int zz = 0; zz < size; zz++) {
+                if (writer.getType(w, sx + xx, y, sz + zz) != NEUTRAL) {
+                    batch.add(sx + xx, y, sz + zz, NEUTRAL);
+                }
+            }
+        }
+        batch.submit().thenRun(() -> Bukkit.getScheduler().runTaskLater(plugin, plugin.getProfiler().wrap("client-floor.show", () -> {
+            if (round != generation) return;
+            updateStates();
+            for (Player p : viewers.get()) {
+                send(p);
+            }
+        }), 1L));
+    }
+
+    // The color of a floor tile as players see it
+    public Material getTileType(World w, int x, int y, int z) {
+        Material type = writer.getType(w, x, y, z);
+        if (pattern == null || type != NEUTRAL || y != floorY || !w.equals(world)) {
+            return type;
+        }
+        int localX = x - startX;
+        int localZ = z - startZ;
+        if (localX < 0 || localX >= FloorLayout.SIZE || localZ < 0 || localZ >= FloorLayout.SIZE) {
+            return type;
+        }
+        return pattern.getMaterial(localX, localZ);
+    }
+
+    // The floor tiles players see as color, as a TileMask over the 64x64 floor at (sx, y, sz).
+    // Answered from the FloorState masks when it tracks that floor and no writes are queued,
+    // tile by tile otherwise.
+    public long[] getVisibleMask(World w, int sx, int y, int sz, Material color) {
+        FloorState state = floorState;
+        if (!state.covers(w, sx, y, sz) || writer.hasPendingWrites(w)) {
+            long[] mask = new long[TileMask.WORDS];
+            int size = FloorLayout.SIZE;
+            for (int xx = 0; xx < size; xx++) {
+                for (int zz = 0; zz < size; zz++) {
+                    if (getTileType(w, sx + xx, y, sz + zz) == color) {
+                        mask[xx] |= 1L << zz;
+                    }
+                }
+            }
+            return mask;
+        }
+        long[] mask = state.getFloorMask(color);
+        int index = FloorLayout.paletteIndex(color);
+        if (pattern != null && index >= 0 && w.equals(world) && sx == startX && y == floorY && sz == startZ) {
+            // Neutral tiles show the pattern, the rest show what the world has
+            long[] neutral = state.getFloorMask(NEUTRAL);
+            long[] shown = pattern.getColorMask(index);
+            for (int i = 0; i < mask.length; i++) {
+                mask[i] |= neutral[i] & shown[i];
+            }
+        }
+        return mask;
+    }
+
+    // Removes every tile players don't see as the safe color. The safe tiles are left as they are
+    // in the world, NEUTRAL ones keep showing the pattern until the next round or clear().
+    public CompletableFuture<Integer> freeze(Material safeClay) {
+        if (pattern == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        FloorWriter.Batch batch = writer.batch(world);
+        int size = FloorLayout.SIZE;
+        long[] safe = getVisibleMask(world, startX, floorY, startZ, safeClay);
+        FloorState state = floorState;
+        if (state.covers(world, startX, floorY, startZ) && !writer.hasPendingWrites(world)) {
+            // Everything players don't see as the safe color that isn't air yet
+            long[] air = state.getFloorMask(Material.AIR);
+            long[] remove = new long[TileMask.WORDS];
+            for (int i = 0; i < safe.length; i++) {
+                remove[i] = ~safe[i] & ~air[i];
+            }
+            TileMask.forEach(remove, tile -> batch.add(startX + tile / size, floorY, startZ + tile % size, Material.AIR));
+        } else {
+            for (int xx = 0; xx < size; xx++) {
+                for (int zz = 0; zz < size; zz++) {
+                    int x = startX + xx;
+                    int z = startZ + zz;
+                    if ((safe[xx] & 1L << zz) == 0 && writer.getType(world, x, floorY, z) != Material.AIR) {
+                        batch.add(x, floorY, z, Material.AIR);
+                    }
+                }
+            }
+        }
+        return batch.submit();
+    }
+
+    // Forget the pattern, e.g. because a real floor was written over it
+    public void clear() {
+        pattern = null;
+        generation++;
+    }
+
+    // The arena's world was unloaded, drop the block snapshots that belong to it
+    public void release() {
+        clear();
+        world = null;
+        states = null;
+        statesWorld = null;
+    }
+
+    // Players entering the world mid-round get the pattern too, if they joined this arena
+    @EventHandler
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        resendLater(event.getPlayer());
+    }
+
+    // A teleport or respawn can make the server send the floor's chunks again
+    @EventHandler
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        if (event.getTo() != null && world != null && world.equals(event.getTo().getWorld())) {
+            resendLater(event.getPlayer());
+        }
+    }
+
+    @EventHandler
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        resendLater(event.getPlayer());
+    }
+
+    // A floor chunk that was unloaded is sent to the viewers again with the world's blocks
+    @EventHandler
+    public void onChunkLoad(ChunkLoadEvent event) {
+        if (pattern == null || !event.getWorld().equals(world)) return;
+        int cx = event.getChunk().getX();
+        int cz = event.getChunk().getZ();
+        if (cx < startX >> 4 || cx > (startX + FloorLayout.SIZE - 1) >> 4
+                || cz < startZ >> 4 || cz > (startZ + FloorLayout.SIZE - 1) >> 4) {
+            return;
+        }
+        int round = generation;
+        Bukkit.getScheduler().runTaskLater(plugin, plugin.getProfiler().wrap("client-floor.resend", () -> {
+            if (round != generation) return;
+            for (Player p : viewers.get()) {
+                if (p.getWorld().equals(world)) {
+                    send(p, cx, cz);
+                }
+            }
+        }), 5L);
+    }
+
+    private void resendLater(Player player) {
+        if (pattern == null || !viewers.get().contains(player)) return;
+        int round = generation;
+        // The chunk packets go out first
+        Bukkit.getScheduler().runTaskLater(plugin, plugin.getProfiler().wrap("client-floor.resend", () -> {
+            if (round == generation && player.isOnline() && player.getWorld().equals(world)) {
+                send(player);
+            }
+        }), 5L);
+    }
+
+    private void send(Player player) {
+        send(player, Integer.MIN_VALUE, Integer.MIN_VALUE);
+    }
+
+    // The pattern on the tiles of chunk (cx, cz), or of the whole floor for Integer.MIN_VALUE.
+    // Only tiles that are NEUTRAL in the world show it, holes and recolored tiles are left alone.
+    private void send(Player player, int cx, int cz) {
+        if (states == null) return;
+        List<BlockState> shown = new ArrayList<>();
+        int size = FloorLayout.SIZE;
+        for (int xx = 0; xx < size; xx++) {
+            int x = startX + xx;
+            if (cx != Integer.MIN_VALUE && x >> 4 != cx) continue;
+            for (int zz = 0; zz < size; zz++) {
+                int z = startZ + zz;
+                if (cz != Integer.MIN_VALUE && z >> 4 != cz) continue;
+                if (writer.getType(world, x, floorY, z) == NEUTRAL) {
+                    shown.add(states[xx * size + zz]);
+                }
+            }
+        }
+        if (!shown.isEmpty()) {
+            player.sendBlockChanges(shown);
+        }
+    }
+
+    private void updateStates() {
+        int size = FloorLayout.SIZE;
+        if (states == null || statesWorld != world) {
+            states = new BlockState[FloorLayout.CELLS];
+            statesWorld = world;
+            for (int xx = 0; xx < size; xx++) {
+                for (int zz = 0; zz < size; zz++) {
+                    states[xx * size + zz] = world.getBlockAt(startX + xx, floorY, startZ + zz).getState();
+                }
+            }
+        }
+        for (int xx = 0; xx < size; xx++) {
+            for (int zz = 0; zz < size; zz++) {
+                states[xx * size + zz].setBlockData(writer.getBlockData(pattern.getMaterial(xx, zz)));
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * /cp admin command.
+ *   /cp snapshot save      capture the first arena into arena.cpsnap (see ArenaSnapshot)
+ *   /cp snapshot paste     write every block of the snapshot back, into every arena
+ *   /cp snapshot restore   write back only the blocks that differ from the snapshot, in every arena
+ *   /cp snapshot info      show what the loaded snapshot covers
+ *   /cp seed <arena>         show the seed of the arena's current or last game
+ *   /cp seed <arena> <seed>  start the arena's next game with that seed, to replay it (see GameRandom)
+ *   /cp profile [count]      time spent per task and event handler, busiest first (see TaskProfiler)
+ *   /cp profile reset        start measuring from scratch, e.g. right before a crazy round
+ */
+public class ColorPartyCommand implements TabExecutor {
+
+    private static final String PERMISSION = "colorparty.admin";
+
+    private final ColorPartyPlugin plugin;
+
+    public ColorPartyCommand(ColorPartyPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission(PERMISSION)) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to use this command.");
+            return true;
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase("snapshot")) {
+            return onSnapshot(sender, args.length >= 2 ? args[1].toLowerCase() : "");
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase("seed")) {
+            return onSeed(sender, args);
+        }
+        if (args.length >= 1 && args[0].equalsIgnoreCase("profile")) {
+            return onProfile(sender, args);
+        }
+        return false;
+    }
+
+    private boolean onSnapshot(CommandSender sender, String action) {
+        switch (action) {
+            case "save": {
+                long start = System.nanoTime();
+                plugin.saveArenaSnapshot().whenComplete((snapshot, error) -> {
+                    if (error != null) {
+                        sender.sendMessage(ChatColor.RED + "Could not save the arena snapshot: " + error.getMessage());
+                        return;
+                    }
+                    sender.sendMessage(ChatColor.GREEN + "Saved arena snapshot: " + snapshot.getBlockCount() + " blocks, "
+                            + snapshot.getPaletteSize() + " block states, "
+                            + (System.nanoTime() - start) / 1_000_000 + " ms.");
+                });
+                return true;
+            }
+            case "paste":
+            case "restore": {
+                if (plugin.getArenaSnapshot() == null) {
+                    sender.sendMessage(ChatColor.RED + "There is no arena snapshot, use /cp snapshot save first.");
+                    return true;
+                }
+                if (plugin.getArenaManager().isAnyGameInProgress()) {
+                    sender.sendMessage(ChatColor.RED + "A game is running, try again when it is over.");
+                    return true;
+                }
+                ArenaSnapshot.Mode mode = action.equals("paste") ? ArenaSnapshot.Mode.FULL : ArenaSnapshot.Mode.DIFF;
+                sender.sendMessage(ChatColor.YELLOW + "Rebuilding the arenas from the snapshot (" + mode + ")...");
+                plugin.getArenaManager().resetAll(mode).thenRun(() ->
+                        sender.sendMessage(ChatColor.GREEN + "Arenas rebuilt, see the server log for details."));
+                return true;
+            }
+            case "info": {
+                ArenaSnapshot snapshot = plugin.getArenaSnapshot();
+                if (snapshot == null) {
+                    sender.sendMessage(ChatColor.YELLOW + "No arena snapshot loaded.");
+                } else {
+                    sender.sendMessage(ChatColor.GREEN + "Arena snapshot: " + snapshot.describeBounds() + ", "
+                            + snapshot.getBlockCount() + " blocks, " + snapshot.getPaletteSize() + " block states.");
+                }
+                return true;
+            }
+            default:
+                sender.sendMessage(ChatColor.YELLOW + "Usage: /cp snapshot <save|paste|restore|info>");
+                return true;
+        }
+    }
+
+    private boolean onSeed(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.YELLOW + "Usage: /cp seed <arena> [seed]");
+            return true;
+        }
+        Arena arena;
+        try {
+            arena = plugin.getArenaManager().get(Integer.parseInt(args[1]));
+        } catch (NumberFormatException e) {
+            arena = null;
+        }
+        if (arena == null) {
+            sender.sendMessage(ChatColor.RED + "There is no arena " + args[1] + ", arenas are 0 to "
+                    + (plugin.getArenaManager().getArenas().size() - 1) + ".");
+            return true;
+        }
+        if (args.length == 2) {
+            sender.sendMessage(ChatColor.GREEN + "Arena " + arena.getId() + " seed: " + arena.getSeed());
+            return true;
+        }
+        try {
+            arena.setNextSeed(Long.parseLong(args[2]));
+        } catch (NumberFormatException e) {
+            sender.sendMessage(ChatColor.RED + args[2] + " is not a seed.");
+            return true;
+        }
+        sender.sendMessage(ChatColor.GREEN + "The next game in arena " + arena.getId() + " uses seed " + args[2] + ".");
+        return true;
+    }
+
+    private boolean onProfile(CommandSender sender, String[] args) {
+        TaskProfiler profiler = plugin.getProfiler();
+        if (!profiler.isEnabled()) {
+            sender.sendMessage(ChatColor.RED + "The profiler is off, set profiler.enabled in config.yml.");
+            return true;
+        }
+        if (args.length >= 2 && args[1].equalsIgnoreCase("reset")) {
+            profiler.reset();
+            sender.sendMessage(ChatColor.GREEN + "Profiler reset.");
+            return true;
+        }
+        int count = 10;
+        if (args.length >= 2) {
+            try {
+                count = Math.max(1, Integer.parseInt(args[1]));
+            } catch (NumberFormatException e) {
+                sender.sendMessage(ChatColor.YELLOW + "Usage: /cp profile [count|reset]");
+                return true;
+            }
+        }
+        List<TaskProfiler.Stats> stats = profiler.getStats();
+        if (stats.isEmpty()) {
+            sender.sendMessage(ChatColor.YELLOW + "Nothing has run since the last reset.");
+            return true;
+        }
+        sender.sendMessage(ChatColor.GREEN + "Tick time by task, busiest first (calls, total, p50, p99, max):");
+        for (int i = 0; i < Math.min(count, stats.size()); i++) {
+            TaskProfiler.Stats s = stats.get(i);
+            sender.sendMessage(ChatColor.GRAY + s.name() + ChatColor.WHITE + "  " + s.calls() + "  "
+                    + TaskProfiler.formatNanos(s.totalNanos()) + "  " + TaskProfiler.formatNanos(s.p50()) + "  "
+                    + TaskProfiler.formatNanos(s.p99()) + "  " + TaskProfiler.formatNanos(s.max()));
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> options = new ArrayList<>();
+        if (!sender.hasPermission(PERMISSION)) return options;
+        if (args.length == 1) {
+            options.add("snapshot");
+            options.add("seed");
+            options.add("profile");
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("snapshot")) {
+            options.addAll(List.of("save", "paste", "restore", "info"));
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("profile")) {
+            options.add("reset");
+        }
+        options.removeIf(option -> !option.startsWith(args[args.length - 1].toLowerCase()));
+        return options;
+    }
+}
@@ -19,8 +19,12 @@ public class ColorPartyDisconnectListener implements Listener {
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
+        // Players waiting for a free arena are still in the main world
+        if (plugin.getMatchmakingQueue() != null) {
+            plugin.getMatchmakingQueue().leave(player);
+        }
         // Check if player is in the Color Party world.
-        if (player.getWorld().getName().equals(ColorPartyPlugin.MINIGAME_WORLD_NAME)) {
+        if (ColorPartyPlugin.isMinigameWorld(player.getWorld())) {
             plugin.getLogger().info(player.getName() + " disconnected from Color Party world.");
             // Use the existing method to remove the player from the game.
             plugin.getMinigameListener().removePlayerFromGame(player);
@@ -20,7 +20,7 @@ public class ColorPartyJoinListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
         // If the player is still in the Color Party world, remove them.
-        if (player.getWorld().getName().equals(ColorPartyPlugin.MINIGAME_WORLD_NAME)) {
+        if (ColorPartyPlugin.isMinigameWorld(player.getWorld())) {
             // Teleport them to the overworld using the same coordinates as the Exit bed.
             World overworld = Bukkit.getWorld("world");
             if (overworld != null) {
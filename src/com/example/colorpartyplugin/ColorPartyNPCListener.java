@@ -9,18 +9,16 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerInteractAtEntityEvent;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class ColorPartyNPCListener implements Listener {
     private final ColorPartyPlugin plugin;
 
-    // The 6 possible X offsets
+    // The 6 possible X offsets, relative to the arena origin
     private static final double[] POSSIBLE_X = {
             -2.5, -1.5, -0.5, 0.5, 1.5, 2.5
     };
-    // The 6 possible Z offsets
+    // The 6 possible Z offsets, relative to the arena origin
     private static final double[] POSSIBLE_Z = {
             -65.5, -64.5, -63.5, -62.5, -61.5, -60.5
     };
@@ -32,10 +30,6 @@ public class ColorPartyNPCListener implements Listener {
             { 2, -2}, { 2, 0}, { 2, 2}
     };
 
-    // Store each player's "pre-game" offset here so can re-teleport them
-    // to the dance floor at countdown. Key = player UUID; Value = double[]{xOffset, zOffset}
-    private static final Map<UUID, double[]> preGameOffsets = new HashMap<>();
-
     public ColorPartyNPCListener(ColorPartyPlugin plugin) {
         this.plugin = plugin;
     }
@@ -45,36 +39,52 @@ public class ColorPartyNPCListener implements Listener {
         if (event.getRightClicked() instanceof Villager villager) {
             if ("Play Color Party".equals(villager.getCustomName())) {
                 Player player = event.getPlayer();
-                World cpWorld = plugin.getServer().getWorld(ColorPartyPlugin.MINIGAME_WORLD_NAME);
-                if (cpWorld != null) {
-                    // Add them to the minigame
-                    ColorPartyMinigameListener.addPlayerToGame(player);
-
-                    // Store/clear inventory
-                    plugin.storeAndClearInventory(player);
-
-                    // Instead of spawning them on the dance floor, pick random X & Z from the arrays
-                    double xOffset = POSSIBLE_X[(int)(Math.random() * POSSIBLE_X.length)];
-                    double zOffset = POSSIBLE_Z[(int)(Math.random() * POSSIBLE_Z.length)];
+                // With matchmaking on, the queue picks the arena and starts the game (see MatchmakingQueue)
+                MatchmakingQueue queue = plugin.getMatchmakingQueue();
+                if (queue != null) {
+                    queue.join(player);
+                    return;
+                }
 
-                    // Save these offsets so we can later place them on the floor with the same "slot"
-                    preGameOffsets.put(player.getUniqueId(), new double[]{ xOffset, zOffset });
+                // Add them to the minigame, in the arena that is waiting for players (see ArenaManager)
+                Arena arena = plugin.getArenaManager().pickArena();
+                if (arena.getWorld() == null) {
+                    // Its own world is unloaded (arenas.own-worlds), it takes a moment to build
+                    arena.prepareWorld();
+                    player.sendMessage("The Color Party arena is being prepared, talk to me again in a few seconds.");
+                    return;
+                }
+                arena.addPlayer(player);
 
-                    // Y=123, using those offsets
-                    Location spawnLoc = new Location(cpWorld, xOffset, 123, zOffset, 0, 0);
-                    player.teleport(spawnLoc);
-                    player.setGameMode(org.bukkit.GameMode.SURVIVAL);
-                    player.setFallDistance(0f);
+                // Store/clear inventory
+                plugin.storeAndClearInventory(player);
 
-                    player.sendMessage("Welcome to Color Party! Use 'Start' to begin, or 'Exit' to leave.");
-                }
+                sendToPreGameArea(player, arena);
             }
         }
     }
 
-    //Public accessor so the minigame code can retrieve a player's pre-game offset
-    // to teleport them onto the dance floor. If none is found, default to (0, 0).
-    public static double[] getPreGameOffset(UUID playerId) {
-        return preGameOffsets.getOrDefault(playerId, new double[]{0.0, 0.0});
+    // Teleports a player who just joined an arena to a random spot of its pre-game area
+    public static void sendToPreGameArea(Player player, Arena arena) {
+        World cpWorld = arena.getWorld();
+        if (cpWorld == null) return;
+
+        // Instead of spawning them on the dance floor, pick random X & Z from the arrays.
+        // This is before any game, so it doesn't draw from a GameRandom.
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double xOffset = POSSIBLE_X[random.nextInt(POSSIBLE_X.length)];
+        double zOffset = POSSIBLE_Z[random.nextInt(POSSIBLE_Z.length)];
+
+        // Save these offsets so we can later place them on the floor with the same "slot"
+        arena.setPreGameOffset(player.getUniqueId(), xOffset, zOffset);
+
+        // Y=123, using those offsets from the arena's origin
+        Location spawnLoc = new Location(cpWorld, arena.getOriginX() + xOffset, 123,
+                arena.getOriginZ() + zOffset, 0, 0);
+        player.teleport(spawnLoc);
+        player.setGameMode(org.bukkit.GameMode.SURVIVAL);
+        player.setFallDistance(0f);
+
+        player.sendMessage("Welcome to Color Party! Use 'Start' to begin, or 'Exit' to leave.");
     }
 }
\ No newline at end of file
@@ -1,11 +1,6 @@
 package com.example.colorpartyplugin;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import org.bukkit.*;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Villager;
@@ -16,20 +11,20 @@ import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.block.data.type.Light;
-import org.bukkit.scheduler.BukkitRunnable;
 import com.xxmicloxx.NoteBlockAPI.model.Song;
 import com.xxmicloxx.NoteBlockAPI.model.Playlist;
 import com.xxmicloxx.NoteBlockAPI.songplayer.RadioSongPlayer;
 import com.xxmicloxx.NoteBlockAPI.utils.NBSDecoder;
 
 import java.io.File;
-import java.io.FileReader;
+import java.io.IOException;
 import java.util.*;
-import java.util.HashSet;
-import java.util.Set;
-
-import com.example.colorpartyplugin.ColorPartyMinigameListener;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
 
 public class ColorPartyPlugin extends JavaPlugin {
 
@@ -43,9 +38,44 @@ public class ColorPartyPlugin extends JavaPlugin {
     // This is used so that I can call removePlayerFromGame function within DisconnectListener
     private ColorPartyMinigameListener minigameListener;
 
-    // Store references to the loaded songs
-    private Song fixYouSong;
-    private Song getLuckySong;
+    // Dance floor designs shipped in the JAR (as binary .cpfloor) are copied to the data folder on enable
+    // unless a copy is already there, see FloorLibrary.getBuiltInFloors().
+
+    // Parsed dance floor layouts, reloaded when a file in the data folder changes
+    private FloorLibrary floorLibrary;
+
+    // All arena block changes go through this, see FloorWriter
+    private FloorWriter floorWriter;
+
+    // The arenas in colorpartyworld, each with its own game, floor state and effects
+    private ArenaManager arenaManager;
+
+    // Sends NPC players to the arena that is filling up and starts games by itself, null if disabled
+    private MatchmakingQueue matchmakingQueue;
+
+    // Copy of the whole arena taken with /cp snapshot save, null if there is none
+    private volatile ArenaSnapshot arenaSnapshot;
+
+    // Without a saved snapshot, the first arena is copied in memory at startup to build the others
+    private ArenaSnapshot arenaTemplate;
+    // True while captureFirstArena() is copying colorpartyworld's chunks
+    private volatile boolean capturing;
+
+    // Every floor variation that can be picked for a round, other plugins may register their own
+    private final FloorVariationRegistry floorVariations = new FloorVariationRegistry();
+
+    // Runs file loading and other work that must stay off the main thread
+    private ExecutorService backgroundExecutor;
+
+    // Times every scheduled task and event handler, see /cp profile
+    private TaskProfiler profiler;
+
+    // Set once the startup warm-up has finished, see startWarmUp()
+    private volatile boolean ready = false;
+
+    // Store references to the loaded songs, written by the warm-up on a worker thread
+    private volatile Song fixYouSong;
+    private volatile Song getLuckySong;
 
     // Used in minigamelistener for adding players to song
     public static ColorPartyPlugin instance;
@@ -63,58 +93,31 @@ public class ColorPartyPlugin extends JavaPlugin {
             }
         }
 
-        // Copy JSON dance floor files from JAR to data folder, overwriting if already present
-        copyResource("floor_start.json");
-        copyResource("floor_gameover.json");
-        copyResource("floor_variation_1.json");
-        copyResource("floor_carrots.json");
-        copyResource("floor_hearts.json");
-        copyResource("floor_turtles.json");
-        copyResource("floor_concentric_squares.json");
-        copyResource("floor_connected_rings.json");
-        copyResource("floor_stars.json");
-        copyResource("floor_4section_bricks.json");
-        copyResource("floor_9squares.json");
-        copyResource("floor_3shapes.json");
-        copyResource("floor_5circles.json");
-        copyResource("Fix You.nbs");
-        copyResource("Get Lucky.nbs");
-
-        // Load the NBS songs using NBSDecoder
-        File fixYouFile = new File(getDataFolder(), "Fix You.nbs");
-        File getLuckyFile = new File(getDataFolder(), "Get Lucky.nbs");
-        if (fixYouFile.exists()) {
-            fixYouSong = NBSDecoder.parse(fixYouFile);
-        }
-        if (getLuckyFile.exists()) {
-            getLuckySong = NBSDecoder.parse(getLuckyFile);
+        // config.yml, only written if the server doesn't have one yet
+        saveDefaultConfig();
+        profiler = new TaskProfiler(this, getConfig().getBoolean("profiler.enabled", true));
+        profiler.start(getConfig().getInt("profiler.log-interval-seconds", 300), getConfig().getInt("profiler.log-top", 5));
+        floorWriter = new FloorWriter(this,
+                getConfig().getInt("floor-writer.blocks-per-tick", FloorWriter.DEFAULT_BLOCKS_PER_TICK));
+        // Copying, parsing floors and decoding songs happens on background threads,
+        // the arena itself is built on the main thread once everything is loaded.
+        // The arenas prepare their floors on it, so it exists before they do.
+        backgroundExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "ColorParty-Worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        createArenas();
+
+        BuildVariations.registerVariations(floorVariations);
+        floorLibrary = new FloorLibrary(this, floorVariations);
+        startWarmUp();
+
+        // Create/Load colorpartyworld. Arenas with worlds of their own load them when needed instead.
+        if (!arenaManager.usesOwnWorlds()) {
+            loadMinigameWorld(MINIGAME_WORLD_NAME);
         }
 
-        // Create/Load colorpartyworld
-        World cpWorld = Bukkit.getWorld(MINIGAME_WORLD_NAME);
-        if (cpWorld == null) {
-            getLogger().info("World " + MINIGAME_WORLD_NAME + " not found; creating it now.");
-            WorldCreator wc = new WorldCreator(MINIGAME_WORLD_NAME);
-            wc.generator(new VoidGenerator()); // Use our custom void generator
-            cpWorld = Bukkit.createWorld(wc);
-        }
-        if (cpWorld != null) {
-            getLogger().info("Configuring " + MINIGAME_WORLD_NAME);
-            cpWorld.setTime(18000); // Always night (18000 ticks is midnight)
-            cpWorld.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
-            cpWorld.setGameRule(GameRule.DO_MOB_SPAWNING, false); // Disable all mob spawns
-            cpWorld.setSpawnFlags(false, false);
-            cpWorld.setDifficulty(Difficulty.NORMAL);
-            cpWorld.setSpawnFlags(true, true); // allow hostile and friendly mobs
-            cpWorld.setStorm(false);
-            cpWorld.setThundering(false);
-            cpWorld.setWeatherDuration(999999999);
-            cpWorld.setThunderDuration(999999999);
-        }
-
-        // Build/reset the arena using floor_start.json
-        resetArena();
-
         // NPC spawn logic
         World mainWorld = Bukkit.getWorld("world");
         if (mainWorld != null) {
@@ -150,38 +153,47 @@ public class ColorPartyPlugin extends JavaPlugin {
             }
         }
 
-        // Schedule placement of invisible lights
-        placeInvisibleLights(cpWorld);
-
         // Register events
         minigameListener = new ColorPartyMinigameListener(this);
-        getServer().getPluginManager().registerEvents(new ColorPartyNPCListener(this), this);
-        getServer().getPluginManager().registerEvents(new ColorPartyMinigameListener(this), this);
-        getServer().getPluginManager().registerEvents(new ColorPartyDisconnectListener(this), this);
-        getServer().getPluginManager().registerEvents(new ColorPartyJoinListener(this), this);
-        getServer().getPluginManager().registerEvents(new CrazyEffectManager(), this);
+        profiler.registerEvents(new ColorPartyNPCListener(this));
+        profiler.registerEvents(minigameListener);
+        profiler.registerEvents(new ColorPartyDisconnectListener(this));
+        profiler.registerEvents(new ColorPartyJoinListener(this));
+        for (Arena arena : arenaManager.getArenas()) {
+            profiler.registerEvents(arena.getCrazyEffects());
+            profiler.registerEvents(arena.getClientFloorRenderer());
+        }
+        createMatchmakingQueue();
+
+        ColorPartyCommand command = new ColorPartyCommand(this);
+        getCommand("cp").setExecutor(command);
+        getCommand("cp").setTabCompleter(command);
 
         BuildVariations.setPlugin(this);
 
-        // SPAWN FIREWORK PARTICLES ON THE DANCE FLOOR, RANDOMLY (must be final)
-        final World cpWorldFinal = cpWorld;
+        // SPAWN FIREWORK PARTICLES ON THE DANCE FLOOR, RANDOMLY
         // VARIABLES TO CONTROL PARTICLE SPAWNING
         // Number of particles to spawn each cycle
         final int particlesPerCycle = 18;
         // Frequency (in ticks, 20 ticks = 1 second)
         final long particleFrequencyTicks = 20L;
-        Bukkit.getScheduler().runTaskTimer(this, new Runnable() {
+        Bukkit.getScheduler().runTaskTimer(this, profiler.wrap("particles", new Runnable() {
             @Override
             public void run() {
                 // Use a set to track which block positions (x,y,z) have had a particle this cycle.
                 Set<String> usedPositions = new HashSet<>();
-
-                for (int i = 0; i < particlesPerCycle; i++) {
-                    // Random integer between -32 and 32 for both X and Z
-                    int x = -32 + (int) (Math.random() * 65);
-                    int z = -32 + (int) (Math.random() * 65);
+                // Cosmetic only, not part of any game's GameRandom
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < particlesPerCycle * arenaManager.getArenas().size(); i++) {
+                    // Random integer between -32 and 32 for both X and Z, around one of the arenas
+                    Arena arena = arenaManager.get(i % arenaManager.getArenas().size());
+                    World world = arena.getWorld();
+                    if (world == null) continue;
+                    int x = arena.getOriginX() - 32 + random.nextInt(65);
+                    int z = arena.getOriginZ() - 32 + random.nextInt(65);
                     // Randomly choose Y = 122 or Y = 119
-                    int y = (Math.random() < 0.5) ? 122 : 119;
+                    int y = random.nextBoolean() ? 122 : 119;
 
                     // Create a key representing this block position
                     String key = x + "," + y + "," + z;
@@ -192,18 +204,185 @@ public class ColorPartyPlugin extends JavaPlugin {
                     usedPositions.add(key);
 
                     // Calculate the precise location (center of the block)
-                    Location loc = new Location(cpWorldFinal, x + 0.5, y, z + 0.5);
+                    Location loc = new Location(world, x + 0.5, y, z + 0.5);
 
                     // Spawn a single firework spark particle with no extra offset or speed.
-                    cpWorldFinal.spawnParticle(Particle.FIREWORK, loc, 1, 0.0, 0.0, 0.0, 0.0);
+                    world.spawnParticle(Particle.FIREWORK, loc, 1, 0.0, 0.0, 0.0, 0.0);
                 }
             }
-        }, 0L, particleFrequencyTicks);
+        }), 0L, particleFrequencyTicks);
+
+        // Compare a few rows of the shadow floor with the world now and then, fixing any drift
+        long verifyTicks = getConfig().getLong("floor-state.verify-interval-ticks", 100L);
+        if (verifyTicks > 0) {
+            Bukkit.getScheduler().runTaskTimer(this, profiler.wrap("floor-state.verify", () -> {
+                for (Arena arena : arenaManager.getArenas()) {
+                    int wrong = arena.getFloorState().verify();
+                    if (wrong > 0) {
+                        getLogger().warning("Floor state of arena " + arena.getId() + " drifted from the world, corrected "
+                                + wrong + " tile(s).");
+                    }
+                }
+            }), verifyTicks, verifyTicks);
+        }
 
         getLogger().info("ColorPartyPlugin onEnable finished! Plugin is enabled.");
     }
 
-    // This is used in onEnable method to copy JSON files
+    @Override
+    public void onDisable() {
+        if (profiler != null) {
+            profiler.stop();
+        }
+        if (matchmakingQueue != null) {
+            matchmakingQueue.stop();
+        }
+        if (floorWriter != null) {
+            floorWriter.cancelAll();
+        }
+        if (floorLibrary != null) {
+            floorLibrary.stopWatching();
+        }
+        if (backgroundExecutor != null) {
+            backgroundExecutor.shutdownNow();
+        }
+    }
+
+    // Creates the arenas from config.yml (arenas.*). They must not overlap, so the spacing is
+    // raised to fit the snapshot area if it is too small.
+    private void createArenas() {
+        int count = getConfig().getInt("arenas.count", 1);
+        int spacing = getConfig().getInt("arenas.spacing", 200);
+        int minSpacing = 2 * getConfig().getInt("arena-snapshot.radius", 50) + 2;
+        if (spacing < minSpacing) {
+            getLogger().warning("arenas.spacing " + spacing + " is smaller than the arena snapshot area, using " + minSpacing + ".");
+            spacing = minSpacing;
+        }
+        boolean ownWorlds = getConfig().getBoolean("arenas.own-worlds", false);
+        arenaManager = new ArenaManager(this, count, spacing, ownWorlds);
+        getLogger().info("Created " + arenaManager.getArenas().size() + " arena(s), " + spacing + " blocks apart"
+                + (ownWorlds ? ", each in its own world." : "."));
+        if (ownWorlds) {
+            arenaManager.startWorldUnloader(getConfig().getInt("arenas.unload-after-seconds", 300));
+        }
+    }
+
+    // Loads the void world with that name, creating it if it doesn't exist yet, and sets it up for
+    // the minigame (always night, no weather, no mob spawns). Main thread only.
+    public World loadMinigameWorld(String name) {
+        World world = Bukkit.getWorld(name);
+        if (world != null) return world;
+        getLogger().info("Loading world " + name + ".");
+        WorldCreator wc = new WorldCreator(name);
+        wc.generator(new VoidGenerator()); // Use our custom void generator
+        world = Bukkit.createWorld(wc);
+        if (world != null) {
+            getLogger().info("Configuring " + name);
+            world.setTime(18000); // Always night (18000 ticks is midnight)
+            world.setGameRule(GameRule.DO_DAYLIGHT_CYCLE, false);
+            world.setGameRule(GameRule.DO_MOB_SPAWNING, false); // Disable all mob spawns
+            world.setSpawnFlags(false, false);
+            world.setDifficulty(Difficulty.NORMAL);
+            world.setSpawnFlags(true, true); // allow hostile and friendly mobs
+            world.setStorm(false);
+            world.setThundering(false);
+            world.setWeatherDuration(999999999);
+            world.setThunderDuration(999999999);
+        }
+        return world;
+    }
+
+    // colorpartyworld and the arenas' own worlds (colorpartyworld_<id>)
+    public static boolean isMinigameWorld(World world) {
+        String name = world.getName();
+        return name.equals(MINIGAME_WORLD_NAME) || name.startsWith(MINIGAME_WORLD_NAME + "_");
+    }
+
+    // Creates the matchmaking queue from config.yml (matchmaking.*), if it is enabled
+    private void createMatchmakingQueue() {
+        if (!getConfig().getBoolean("matchmaking.enabled", false)) {
+            getLogger().info("Matchmaking is disabled, players start games with the Start items.");
+            return;
+        }
+        matchmakingQueue = new MatchmakingQueue(this,
+                getConfig().getInt("matchmaking.target-players", 8),
+                getConfig().getInt("matchmaking.min-players", 2),
+                getConfig().getInt("matchmaking.fill-timeout-seconds", 30),
+                getConfig().getInt("matchmaking.return-delay-seconds", 8));
+        matchmakingQueue.start();
+    }
+
+    // Warm-up: floors and songs are loaded in parallel off the main thread. Only the arena resets,
+    // which mutate the world, are handed back to the main thread. Until they have finished,
+    // isReady() is false and Arena.start() refuses to start a game. If any step fails it stays false.
+    private void startWarmUp() {
+        long startNanos = System.nanoTime();
+
+        CompletableFuture<Void> floors = CompletableFuture.runAsync(() -> {
+            // Copy binary dance floor files from JAR to data folder. Existing files are kept,
+            // so designs edited in the data folder survive a restart.
+            for (String floorFile : FloorLibrary.getBuiltInFloors()) {
+                copyResourceIfMissing(floorFile + FloorFormat.EXTENSION);
+            }
+            // Parse and validate every dance floor once now, so the first JSON round doesn't stall the server
+            // and broken designs show up in the log at startup instead of mid-game.
+            // After that, changed files are picked up by the watcher without a restart.
+            floorLibrary.loadAll();
+            floorLibrary.startWatching();
+
+            // The arena snapshot, if one was saved, replaces the block sweep of the first reset
+            loadArenaSnapshot();
+        }, backgroundExecutor);
+
+        CompletableFuture<Void> songs = CompletableFuture.runAsync(() -> {
+            copyResource("Fix You.nbs");
+            copyResource("Get Lucky.nbs");
+
+            // Load the NBS songs using NBSDecoder
+            File fixYouFile = new File(getDataFolder(), "Fix You.nbs");
+            File getLuckyFile = new File(getDataFolder(), "Get Lucky.nbs");
+            if (fixYouFile.exists()) {
+                fixYouSong = NBSDecoder.parse(fixYouFile);
+            }
+            if (getLuckyFile.exists()) {
+                getLuckySong = NBSDecoder.parse(getLuckyFile);
+            }
+        }, backgroundExecutor);
+
+        CompletableFuture.allOf(floors, songs).whenComplete((ignored, error) -> {
+            if (error != null) {
+                // Games can't run without their floors, so the plugin stays not ready until a restart
+                getLogger().log(Level.SEVERE, "Color Party warm-up failed, games stay disabled until the server restarts.",
+                        error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                return;
+            }
+            if (!isEnabled()) return;
+            Bukkit.getScheduler().runTask(this, profiler.wrap("warm-up", () -> {
+                // Build/reset the arenas using floor_start
+                resetArenas().whenComplete((done, resetError) -> {
+                    if (resetError != null) {
+                        getLogger().log(Level.SEVERE, "Color Party arena reset failed during warm-up, "
+                                + "games stay disabled until the server restarts.", resetError);
+                        return;
+                    }
+                    ready = true;
+                    getLogger().info("Color Party warm-up finished in "
+                            + (System.nanoTime() - startNanos) / 1_000_000 + " ms, games can now be started.");
+                });
+            }));
+        });
+    }
+
+    // False until floors and songs are loaded and the arenas have been built, see also Arena.isReady()
+    public boolean isReady() {
+        return ready;
+    }
+
+    public ExecutorService getBackgroundExecutor() {
+        return backgroundExecutor;
+    }
+
+    // This is used in onEnable method to copy floor and song files
     private void copyResource(String resourceName) {
         try {
             saveResource(resourceName, true);
@@ -214,6 +393,12 @@ public class ColorPartyPlugin extends JavaPlugin {
         }
     }
 
+    // Floor designs are only copied the first time, delete the file to get the shipped version back
+    private void copyResourceIfMissing(String resourceName) {
+        if (new File(getDataFolder(), resourceName).exists()) return;
+        copyResource(resourceName);
+    }
+
     // For in-game songs
     public Song getFixYouSong() {
         return fixYouSong;
@@ -222,337 +407,168 @@ public class ColorPartyPlugin extends JavaPlugin {
         return getLuckySong;
     }
 
-    // Provide a public getter for the minigame listener:
-    // This is used so that I can call removePlayerFromGame from within DisconnectListener
-    public ColorPartyMinigameListener getMinigameListener() {
-        return minigameListener;
+    public FloorLibrary getFloorLibrary() {
+        return floorLibrary;
     }
 
-    // Invisible lights (so dance floor is not dark)
-    private void placeInvisibleLights(World cpWorld) {
-        final World finalWorld = cpWorld;
-
-        new BukkitRunnable() {
-            // Place lights in a 64×64 area (100 block radius around (0,122,0)).
-            int radius = 32;
-            int xMin = -radius;
-            int xMax = radius;
-            int zMin = -radius;
-            int zMax = radius;
-            int currentX = xMin;
-            int currentZ = zMin;
-            int yLevel = 122; // Y coordinate where you want the light
-
-            @Override
-            public void run() {
-                // Place lights in small batches to avoid lag spikes
-                int blocksPerTick = 200; // Adjust as needed
-
-                for (int i = 0; i < blocksPerTick; i++) {
-                    // Place a light block at (currentX, yLevel, currentZ)
-                    Block b = finalWorld.getBlockAt(currentX, yLevel, currentZ);
-                    if (b.getType() != Material.LIGHT) {
-                        b.setType(Material.LIGHT, false);
-                        Light lightBlockData = (Light) b.getBlockData();
-                        lightBlockData.setLevel(15); // Full brightness
-                        b.setBlockData(lightBlockData, false);
-                    }
+    public TaskProfiler getProfiler() {
+        return profiler;
+    }
 
-                    // Move to the next coordinate
-                    currentZ++;
-                    if (currentZ > zMax) {
-                        currentZ = zMin;
-                        currentX++;
-                        if (currentX > xMax) {
-                            // We've placed all the lights in the region
-                            Bukkit.getLogger().info("Completed placing invisible light blocks in a "
-                                    + (radius * 2) + "×" + (radius * 2) + " area at y=" + yLevel);
-                            cancel();
-                            break;
-                        }
-                    }
-                }
-            }
-        }.runTaskTimer(this, 20L, 1L); // Start after 1s delay, run every tick
+    public FloorWriter getFloorWriter() {
+        return floorWriter;
     }
 
-    private void removeInvisibleLights(World cpWorld) {
-        final World finalWorld = cpWorld;
+    public ArenaManager getArenaManager() {
+        return arenaManager;
+    }
 
-        new BukkitRunnable() {
-            int radius = 100;
-            int xMin = -radius;
-            int xMax = radius;
-            int zMin = -radius;
-            int zMax = radius;
-            int currentX = xMin;
-            int currentZ = zMin;
-            int yLevel = 122;
-            int blocksPerTick = 200;
+    // Null if matchmaking is disabled
+    public MatchmakingQueue getMatchmakingQueue() {
+        return matchmakingQueue;
+    }
 
-            @Override
-            public void run() {
-                for (int i = 0; i < blocksPerTick; i++) {
-                    Block b = finalWorld.getBlockAt(currentX, yLevel, currentZ);
-                    if (b.getType() == Material.LIGHT) {
-                        b.setType(Material.AIR, false);
-                    }
-                    currentZ++;
-                    if (currentZ > zMax) {
-                        currentZ = zMin;
-                        currentX++;
-                        if (currentX > xMax) {
-                            Bukkit.getLogger().info("Removed invisible light blocks.");
-                            cancel();
-                            break;
-                        }
-                    }
-                }
-            }
-        }.runTaskTimer(this, 0L, 1L);
+    public ArenaSnapshot getArenaSnapshot() {
+        return arenaSnapshot;
     }
 
-    // Build/reset the Color Party arena:
-    // Clear region y=110..130, x/z ~ ±50
-    // Load floor_start.json from the plugin data folder
-    // and build a 64x64 dance floor at y=120 (with 180-degree rotation from the file)
-    // Build bridging ring
-    public void resetArena() {
-        ColorPartyMinigameListener.gameEnded = false;
+    public ArenaSnapshot getArenaTemplate() {
+        return arenaTemplate;
+    }
 
-        getLogger().info("resetArena() called.");
-        World cpWorld = Bukkit.getWorld(MINIGAME_WORLD_NAME);
-        if (cpWorld == null) {
-            getLogger().warning("World " + MINIGAME_WORLD_NAME + " is null in resetArena().");
-            return;
+    private void loadArenaSnapshot() {
+        File file = new File(getDataFolder(), ArenaSnapshot.FILE_NAME);
+        if (!file.exists()) return;
+        try {
+            arenaSnapshot = ArenaSnapshot.read(file.toPath());
+            getLogger().info("Loaded arena snapshot: " + arenaSnapshot.getBlockCount() + " blocks, "
+                    + arenaSnapshot.getPaletteSize() + " block states, " + arenaSnapshot.describeBounds());
+        } catch (IOException e) {
+            getLogger().warning("Could not load " + ArenaSnapshot.FILE_NAME + ": " + e.getMessage());
         }
+    }
 
-        // Clear only the inner region (x and z between -34 and 34)
-        int minY = 110, maxY = 130;
-        // Only clear blocks with X and Z between -34 and 34
-        int innerRadius = 34;
-        for (int y = minY; y <= maxY; y++) {
-            for (int x = -innerRadius; x <= innerRadius; x++) {
-                for (int z = -innerRadius; z <= innerRadius; z++) {
-                    cpWorld.getBlockAt(x, y, z).setType(Material.AIR);
-                }
-            }
+    // Captures the first arena's area from config.yml (arena-snapshot.*) and saves it off the main thread.
+    // The future completes on the main thread once the file is written.
+    public CompletableFuture<ArenaSnapshot> saveArenaSnapshot() {
+        // With arenas.own-worlds, colorpartyworld only holds the arena the others are built from
+        World cpWorld = loadMinigameWorld(MINIGAME_WORLD_NAME);
+        if (cpWorld == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("World " + MINIGAME_WORLD_NAME + " is not loaded"));
         }
-        getLogger().info("Cleared inner region around y=110..130, x/z=±" + innerRadius + ".");
-
-        // Load floor_start.json
-        File layoutFile = new File(getDataFolder(), "floor_start.json");
-        if (!layoutFile.exists()) {
-            getLogger().warning("floor_start.json not found in data folder. Using fallback floor.");
-            buildDanceFloor(cpWorld);
-        } else {
-            Map<Material, List<int[]>> layout = loadLayoutFromFile(layoutFile);
-            if (layout == null) {
-                getLogger().warning("Failed to parse floor_start.json. Using fallback floor.");
-                buildDanceFloor(cpWorld);
-            } else {
-                buildFloorFromLayout(cpWorld, layout);
+        File file = new File(getDataFolder(), ArenaSnapshot.FILE_NAME);
+        // The capture finishes on a background thread, the file is written there too
+        CompletableFuture<ArenaSnapshot> written = captureFirstArena(cpWorld).thenApply(snapshot -> {
+            try {
+                snapshot.write(file.toPath());
+            } catch (IOException e) {
+                throw new CompletionException(e);
             }
-        }
-
-        // Build bridging ring
-        // NO LONGER USED, JUST LOAD INCLUDED MAP FILE THAT CONTAINS SPAWN AREA BRIDGE
-        // removeBridgeRing(cpWorld);
-        // buildBridgeBase(cpWorld);
-
-        // Reapply invisible lights above dance floor
-        placeInvisibleLights(cpWorld);
-
-        getLogger().info("resetArena() finished: custom floor loaded.");
-    }
-
-    // Public method to reset the custom floor externally (e.g., after last player leaves).
-    public void resetCustomFloor() {
-        resetArena();
+            return snapshot;
+        });
+        return onMainThread("snapshot.save", written).thenApply(snapshot -> {
+            arenaSnapshot = snapshot;
+            // The saved snapshot is used from now on, the template isn't needed anymore
+            arenaTemplate = null;
+            unloadTemplateWorld();
+            return snapshot;
+        });
     }
 
-    // Load the JSON, parse into Map<Material, List<int[]>>.
-    private Map<Material, List<int[]>> loadLayoutFromFile(File file) {
-        getLogger().info("Loading layout from file: " + file.getAbsolutePath());
-        try {
-            JsonObject root = new Gson().fromJson(new FileReader(file), JsonObject.class);
-            if (root == null) {
-                getLogger().warning("JSON root is null in file " + file.getName());
-                return null;
-            }
-            Map<Material, List<int[]>> layoutMap = new HashMap<>();
-            int totalCoordsCount = 0;
-            for (String key : root.keySet()) {
-                Material mat = Material.matchMaterial(key);
-                if (mat == null) {
-                    getLogger().warning("Unknown Material in JSON: " + key);
-                    continue;
-                }
-                JsonArray coordsArr = root.getAsJsonArray(key);
-                List<int[]> coordsList = new ArrayList<>();
-                for (JsonElement elem : coordsArr) {
-                    if (!elem.isJsonObject()) continue;
-                    JsonObject obj = elem.getAsJsonObject();
-                    if (!obj.has("x") || !obj.has("z")) continue;
-                    int lx = obj.get("x").getAsInt();
-                    int lz = obj.get("z").getAsInt();
-                    coordsList.add(new int[] { lx, lz });
-                }
-                layoutMap.put(mat, coordsList);
-                totalCoordsCount += coordsList.size();
-                getLogger().info("Loaded " + coordsList.size() + " coordinates for " + key);
-            }
-            getLogger().info("Total coordinates loaded from " + file.getName() + ": " + totalCoordsCount);
-            return layoutMap;
-        } catch (Exception e) {
-            getLogger().severe("Error parsing " + file.getName());
-            e.printStackTrace();
-            return null;
+    // With arenas.own-worlds nobody plays in colorpartyworld, it only holds the arena the others are copied
+    // from. It is loaded to capture that arena (startup without a snapshot, /cp snapshot save) and unloaded
+    // again as soon as nobody is in it. It is saved, since it is where the arena is edited.
+    public void unloadTemplateWorld() {
+        if (!arenaManager.usesOwnWorlds()) return;
+        World cpWorld = Bukkit.getWorld(MINIGAME_WORLD_NAME);
+        if (cpWorld == null || capturing || !cpWorld.getPlayers().isEmpty()) return;
+        if (Bukkit.unloadWorld(cpWorld, true)) {
+            getLogger().info("Unloaded " + MINIGAME_WORLD_NAME + ", the arena worlds are built from the captured arena.");
         }
     }
 
-    // If file fails or is missing, fallback 64x64 floor of LIGHT_GRAY_TERRACOTTA at y=120.
-    private void buildDanceFloor(World world) {
-        getLogger().info("Building fallback 64x64 light gray floor at y=120.");
-        int floorSize = 64;
-        int startX = -floorSize / 2;
-        int startZ = -floorSize / 2;
-        int y = 120;
-        for (int x = startX; x < startX + floorSize; x++) {
-            for (int z = startZ; z < startZ + floorSize; z++) {
-                world.getBlockAt(x, y, z).setType(Material.LIGHT_GRAY_TERRACOTTA);
-            }
-        }
+    // The snapshot area (arena-snapshot.* in config.yml) around the first arena's origin. Call on the
+    // main thread, the chunks are copied over a few ticks and the future completes on a background thread.
+    private CompletableFuture<ArenaSnapshot> captureFirstArena(World cpWorld) {
+        int radius = getConfig().getInt("arena-snapshot.radius", 50);
+        capturing = true;
+        return ArenaSnapshot.capture(this, cpWorld, -radius,
+                getConfig().getInt("arena-snapshot.min-y", 100), -radius,
+                radius, getConfig().getInt("arena-snapshot.max-y", 135), radius, backgroundExecutor)
+                .whenComplete((snapshot, error) -> capturing = false);
     }
 
-    // Builds the floor from layout, applying a 180-degree rotation:
-    // newLocalX = 63 - oldLocalX
-    // newLocalZ = 63 - oldLocalZ
-    // so that the "top" from the JSON is at positive Z in the game.
-    private void buildFloorFromLayout(World world, Map<Material, List<int[]>> layout) {
-        getLogger().info("buildFloorFromLayout(): placing blocks at y=120 from layout data, rotated 180°...");
-        if (world == null) return;
-        int size = 64;
-        int startX = -size / 2; // -32
-        int startZ = -size / 2; // -32
-        int y = 120;
-
-        // Fill 64x64 with LIGHT_GRAY first
-        Material[][] floor = new Material[size][size];
-        for (int xx = 0; xx < size; xx++) {
-            for (int zz = 0; zz < size; zz++) {
-                floor[xx][zz] = Material.LIGHT_GRAY_TERRACOTTA;
+    // Completes on the main thread with future's result, the continuation is timed under name
+    private <T> CompletableFuture<T> onMainThread(String name, CompletableFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, error) -> Bukkit.getScheduler().runTask(this, profiler.wrap(name, () -> {
+            if (error != null) {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                result.complete(value);
             }
-        }
-
-        // Overwrite with 180-degree rotation
-        for (Map.Entry<Material, List<int[]>> entry : layout.entrySet()) {
-            Material mat = entry.getKey();
-            for (int[] coord : entry.getValue()) {
-                int lx = coord[0]; // 0..63
-                int lz = coord[1]; // 0..63
+        })));
+        return result;
+    }
 
-                // Rotate 180-degree around center: newLocalX = 63 - lx, newLocalZ = 63 - lz
-                int newLx = 63 - lx;
-                int newLz = 63 - lz;
+    public FloorVariationRegistry getFloorVariations() {
+        return floorVariations;
+    }
 
-                if (newLx >= 0 && newLx < size && newLz >= 0 && newLz < size) {
-                    floor[newLx][newLz] = mat;
-                }
-            }
-        }
+    // Provide a public getter for the minigame listener:
+    // This is used so that I can call removePlayerFromGame from within DisconnectListener
+    public ColorPartyMinigameListener getMinigameListener() {
+        return minigameListener;
+    }
 
-        // Place blocks
-        int placedCount = 0;
-        for (int xx = 0; xx < size; xx++) {
-            for (int zz = 0; zz < size; zz++) {
-                int wx = startX + xx;
-                int wz = startZ + zz;
-                world.getBlockAt(wx, y, wz).setType(floor[xx][zz]);
-                placedCount++;
-            }
-        }
-        getLogger().info("Custom floor built with 180° rotation. Blocks placed: " + placedCount);
-    }
-
-    // Builds 8-block wide ring around floor, 4-block gap, 6-block tall glass walls
-    // NO LONGER USED
-    private void buildBridgeRing(World world) {
-        getLogger().info("Building bridging ring around dance floor...");
-        int floorSize = 64;
-        int gap = 4;
-        int ringWidth = 8;
-        int totalOuter = floorSize + 2 * gap + 2 * ringWidth;
-        int floorStart = -(floorSize / 2);
-        int ringStart = floorStart - gap - ringWidth;
-        int y = 120;
-
-        for (int x = ringStart; x < ringStart + totalOuter; x++) {
-            for (int z = ringStart; z < ringStart + totalOuter; z++) {
-                boolean inInnerGap = (x >= floorStart - gap && x < floorStart + floorSize + gap)
-                        && (z >= floorStart - gap && z < floorStart + floorSize + gap);
-                if (!inInnerGap) {
-                    world.getBlockAt(x, y, z).setType(Material.STONE_BRICKS);
-                    for (int wallY = y + 1; wallY <= y + 6; wallY++) {
-                        world.getBlockAt(x, wallY, z).setType(Material.GLASS);
-                    }
+    // Resets every arena after startup. The first arena comes first: without a saved snapshot the other
+    // arenas are copied from it once it is built, so they get the same bridge and spawn area.
+    private CompletableFuture<Void> resetArenas() {
+        List<Arena> arenas = arenaManager.getArenas();
+        if (arenaManager.usesOwnWorlds()) {
+            // Nothing is built yet, an arena's world is loaded when players queue for it (Arena.prepareWorld()).
+            // Without a saved snapshot they are built from a copy of colorpartyworld's arena, taken once
+            // here and kept for every later rebuild.
+            if (arenaSnapshot == null && arenaTemplate == null) {
+                World cpWorld = loadMinigameWorld(MINIGAME_WORLD_NAME);
+                if (cpWorld != null) {
+                    return onMainThread("snapshot.template", captureFirstArena(cpWorld)).thenAccept(template -> {
+                        arenaTemplate = template;
+                        getLogger().info("No arena snapshot saved, copied the arena in " + MINIGAME_WORLD_NAME + " ("
+                                + template.getBlockCount() + " blocks) to build the arena worlds.");
+                        unloadTemplateWorld();
+                    });
                 }
             }
+            return CompletableFuture.completedFuture(null);
         }
-        getLogger().info("Bridging ring built.");
-    }
-
-    // NO LONGER USED
-    public void removeBridgeRing(World world) {
-        getLogger().info("Removing bridging ring around dance floor...");
-        int floorSize = 64;
-        int gap = 4;
-        int ringWidth = 8;
-        int totalOuter = floorSize + 2 * gap + 2 * ringWidth;
-        int floorStart = -(floorSize / 2);
-        int ringStart = floorStart - gap - ringWidth;
-        int y = 120;
-
-        for (int x = ringStart; x < ringStart + totalOuter; x++) {
-            for (int z = ringStart; z < ringStart + totalOuter; z++) {
-                // Determine if this position is within the inner gap (i.e. not part of the bridge)
-                boolean inInnerGap = (x >= floorStart - gap && x < floorStart + floorSize + gap)
-                        && (z >= floorStart - gap && z < floorStart + floorSize + gap);
-                if (!inInnerGap) {
-                    // Remove the base block and the glass wall above it
-                    world.getBlockAt(x, y, z).setType(Material.AIR);
-                    for (int wallY = y + 1; wallY <= y + 6; wallY++) {
-                        world.getBlockAt(x, wallY, z).setType(Material.AIR);
-                    }
-                }
+        return arenas.get(0).reset(null).thenCompose(ignored -> {
+            World cpWorld = Bukkit.getWorld(MINIGAME_WORLD_NAME);
+            if (arenas.size() > 1 && arenaSnapshot == null && arenaTemplate == null && cpWorld != null) {
+                return onMainThread("snapshot.template", captureFirstArena(cpWorld)).thenAccept(template -> {
+                    arenaTemplate = template;
+                    getLogger().info("No arena snapshot saved, copied the first arena (" + template.getBlockCount()
+                            + " blocks) to build the other " + (arenas.size() - 1) + ".");
+                });
             }
-        }
-        getLogger().info("Bridging ring removed.");
-    }
-
-    public void buildBridgeBase(World world) {
-        getLogger().info("Building bridge base (quartz block) around dance floor...");
-        int floorSize = 64;
-        int gap = 4;
-        int ringWidth = 12;
-        int totalOuter = floorSize + 2 * gap + 2 * ringWidth;
-        int floorStart = -(floorSize / 2);
-        int ringStart = floorStart - gap - ringWidth;
-        int y = 120;
-
-        for (int x = ringStart; x < ringStart + totalOuter; x++) {
-            for (int z = ringStart; z < ringStart + totalOuter; z++) {
-                boolean inInnerGap = (x >= floorStart - gap && x < floorStart + floorSize + gap)
-                        && (z >= floorStart - gap && z < floorStart + floorSize + gap);
-                if (!inInnerGap) {
-                    // Place quartz blocks for 3 block heights
-                    for (int height = y; height < y + 3; height++) {
-                        world.getBlockAt(x, height, z).setType(Material.QUARTZ_BLOCK);
-                    }
-                }
+            return CompletableFuture.<Void>completedFuture(null);
+        }).thenCompose(ignored -> {
+            CompletableFuture<?>[] others = new CompletableFuture<?>[arenas.size() - 1];
+            for (int i = 1; i < arenas.size(); i++) {
+                others[i - 1] = arenas.get(i).reset(null);
             }
+            return CompletableFuture.allOf(others);
+        });
+    }
+
+    public FloorLayout getFloorStartLayout() {
+        FloorLayout layout = floorLibrary != null ? floorLibrary.get("floor_start") : null;
+        if (layout == null) {
+            getLogger().warning("floor_start could not be loaded from data folder. Using fallback floor.");
+            return FloorLayout.LIGHT_GRAY;
         }
-        getLogger().info("Bridge base built.");
+        return layout;
     }
 
     // Inventory handling
@@ -561,6 +577,11 @@ public class ColorPartyPlugin extends JavaPlugin {
         mainWorldInventories.put(uuid, player.getInventory().getContents());
         mainWorldArmor.put(uuid, player.getInventory().getArmorContents());
 
+        giveLobbyItems(player);
+    }
+
+    // Replaces the inventory with the pre-game items (Start / Start Crazy / Exit)
+    public void giveLobbyItems(Player player) {
         player.getInventory().clear();
         player.getInventory().setArmorContents(null);
 
@@ -20,6 +20,7 @@ import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  CrazyEffectManager controls four "crazy mode" effects:
@@ -33,11 +34,41 @@ import java.util.*;
  - The color splash occurs if the projectile hits within the 64x64 floor.
  - Withers are AI-off, but we manually move them in small teleports.
 
+ Every arena has its own manager (tasks, withers, jockeys), registered as a listener once per arena.
  */
 public class CrazyEffectManager implements Listener {
 
+    private final ColorPartyPlugin plugin;
+
+    // The arena's world, see Arena.getWorldName()
+    private final String worldName;
+    // The arena's 64x64 floor, used by the cleanup and the bomb splash
+    private final int floorStartX; // -32 for the first arena
+    private final int floorStartZ;
+    private final int floorY;
+
+    public CrazyEffectManager(ColorPartyPlugin plugin, String worldName, int floorStartX, int floorStartZ, int floorY) {
+        this.plugin = plugin;
+        this.worldName = worldName;
+        this.floorStartX = floorStartX;
+        this.floorStartZ = floorStartZ;
+        this.floorY = floorY;
+    }
+
+    // The current game's effect stream, see GameRandom
+    private RandomGenerator random = new SplittableRandom();
+
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    // All block changes go through the plugin's FloorWriter
+    private FloorWriter writer() {
+        return plugin.getFloorWriter();
+    }
+
     // Start a random effect (#1, #2, or #3)
-    public static void startRandomEffect(
+    public void startRandomEffect(
             ColorPartyPlugin plugin,
             int floorSize, // e.g. 64
             int startX,    // e.g. -32
@@ -45,7 +76,7 @@ public class CrazyEffectManager implements Listener {
             int yFloor,    // e.g. 120
             int roundTicks
     ) {
-        int effectId = new Random().nextInt(4);
+        int effectId = random.nextInt(4);
         switch (effectId) {
             case 0 -> startSnowEffect(plugin, floorSize, startX, startZ, yFloor, roundTicks);
             case 1 -> startRollingEffect(plugin, floorSize, startX, startZ, yFloor, roundTicks);
@@ -55,15 +86,15 @@ public class CrazyEffectManager implements Listener {
     }
 
     // EFFECT #1: SNOW LAYERS
-    private static BukkitRunnable activeSnowTask = null;
+    private BukkitRunnable activeSnowTask = null;
 
-    public static void startSnowEffect(
+    public void startSnowEffect(
             ColorPartyPlugin plugin,
             int floorSize, int startX, int startZ, int yFloor,
             int roundTicks
     ) {
         stopSnowEffect();
-        World cpWorld = Bukkit.getWorld(ColorPartyPlugin.MINIGAME_WORLD_NAME);
+        World cpWorld = Bukkit.getWorld(worldName);
         if (cpWorld == null) return;
 
         // 16 intervals, each placing 128 snow => total 2048
@@ -71,10 +102,10 @@ public class CrazyEffectManager implements Listener {
         int snowPerInterval = 128;
         int intervalTicks = roundTicks / intervals;
 
-        activeSnowTask = new BukkitRunnable() {
+        activeSnowTask = new TaskProfiler.ProfiledRunnable(plugin.getProfiler(), "crazy.snow") {
             int count = 0;
             @Override
-            public void run() {
+            protected void tick() {
                 if (count >= intervals) {
                     this.cancel();
                     return;
@@ -86,19 +117,16 @@ public class CrazyEffectManager implements Listener {
         activeSnowTask.runTaskTimer(plugin, 0L, intervalTicks);
     }
 
-    private static void placeSomeSnow(World world, int size, int sx, int sz, int y, int amount) {
-        Random random = new Random();
+    private void placeSomeSnow(World world, int size, int sx, int sz, int y, int amount) {
         int placed = 0;
         int attempts = 0;
         while (placed < amount && attempts < amount * 10) {
             int rx = sx + random.nextInt(size);
             int rz = sz + random.nextInt(size);
 
-            Block above = world.getBlockAt(rx, y + 1, rz);
-            if (above.getType() == Material.AIR) {
-                Block floorBlock = world.getBlockAt(rx, y, rz);
-                if (floorBlock.getType() != Material.BEACON) {
-                    above.setType(Material.SNOW);
+            if (writer().getType(world, rx, y + 1, rz) == Material.AIR) {
+                if (writer().getType(world, rx, y, rz) != Material.BEACON) {
+                    writer().set(world, rx, y + 1, rz, Material.SNOW);
                     placed++;
                 }
             }
@@ -106,33 +134,34 @@ public class CrazyEffectManager implements Listener {
         }
     }
 
-    public static void stopSnowEffect() {
+    public void stopSnowEffect() {
         if (activeSnowTask != null) {
             activeSnowTask.cancel();
             activeSnowTask = null;
         }
-        World cpWorld = Bukkit.getWorld(ColorPartyPlugin.MINIGAME_WORLD_NAME);
+        World cpWorld = Bukkit.getWorld(worldName);
         if (cpWorld == null) return;
 
         // Remove snow from the 64x64 floor
         int floorSize = 64;
-        int startX = -32;
-        int startZ = -32;
-        int yFloor = 120;
+        int startX = floorStartX;
+        int startZ = floorStartZ;
+        int yFloor = floorY;
+        FloorWriter.Batch batch = writer().batch(cpWorld);
         for (int x = startX; x < startX + floorSize; x++) {
             for (int z = startZ; z < startZ + floorSize; z++) {
-                Block above = cpWorld.getBlockAt(x, yFloor + 1, z);
-                if (above.getType() == Material.SNOW) {
-                    above.setType(Material.AIR);
+                if (writer().getType(cpWorld, x, yFloor + 1, z) == Material.SNOW) {
+                    batch.add(x, yFloor + 1, z, Material.AIR);
                 }
             }
         }
+        batch.submit();
     }
 
     // EFFECT #2: ROLLING COLORS
-    private static BukkitRunnable currentEffectTask = null;
+    private BukkitRunnable currentEffectTask = null;
 
-    public static void startRollingEffect(
+    public void startRollingEffect(
             ColorPartyPlugin plugin,
             int floorSize,
             int startX,
@@ -142,37 +171,46 @@ public class CrazyEffectManager implements Listener {
     ) {
         stopRollingEffect();
 
-        currentEffectTask = new BukkitRunnable() {
+        currentEffectTask = new TaskProfiler.ProfiledRunnable(plugin.getProfiler(), "crazy.rolling") {
             int elapsedTicks = 0;
             @Override
-            public void run() {
+            protected void tick() {
                 elapsedTicks += 10; // runs 2 times per second
 
-                World cpWorld = Bukkit.getWorld(ColorPartyPlugin.MINIGAME_WORLD_NAME);
+                World cpWorld = Bukkit.getWorld(worldName);
                 if (cpWorld == null) {
                     stopRollingEffect();
                     return;
                 }
 
-                // SHIFT entire row east
-                for (int z = startZ; z < startZ + floorSize; z++) {
-                    int farEastX = startX + floorSize - 1;
-                    Block eastBlock = cpWorld.getBlockAt(farEastX, yFloor, z);
-                    Material savedMat = eastBlock.getType();
-
-                    for (int x = farEastX - 1; x >= startX; x--) {
-                        Block current = cpWorld.getBlockAt(x, yFloor, z);
-                        Block dest = cpWorld.getBlockAt(x + 1, yFloor, z);
-                        dest.setType(current.getType());
-                    }
-                    cpWorld.getBlockAt(startX, yFloor, z).setType(savedMat);
-                }
+                shiftFloorEast(writer(), cpWorld, floorSize, startX, startZ, yFloor);
             }
         };
         currentEffectTask.runTaskTimer(plugin, 0L, 10L);
     }
 
-    public static void stopRollingEffect() {
+    // One step of the rolling colors, static so FloorBenchmark can run it without a plugin
+    static void shiftFloorEast(FloorWriter writer, World cpWorld, int floorSize, int startX, int startZ, int yFloor) {
+        // SHIFT entire row east: read the row first, then write each block once,
+        // blocks that end up with the same material are skipped by the writer
+        FloorWriter.Batch batch = writer.batch(cpWorld);
+        Material[] row = new Material[floorSize];
+        for (int z = startZ; z < startZ + floorSize; z++) {
+            for (int i = 0; i < floorSize; i++) {
+                row[i] = writer.getType(cpWorld, startX + i, yFloor, z);
+            }
+            for (int i = 0; i < floorSize; i++) {
+                // The far east block wraps around to the west edge
+                Material shifted = row[(i + floorSize - 1) % floorSize];
+                if (shifted != row[i]) {
+                    batch.add(startX + i, yFloor, z, shifted);
+                }
+            }
+        }
+        batch.submit();
+    }
+
+    public void stopRollingEffect() {
         if (currentEffectTask != null) {
             currentEffectTask.cancel();
             currentEffectTask = null;
@@ -180,12 +218,12 @@ public class CrazyEffectManager implements Listener {
     }
 
     // EFFECT #3: WITHER BOMBS
-    private static final List<Wither> spawnedWithers = new ArrayList<>();
-    private static BukkitRunnable witherMoveTask = null;
-    private static BukkitRunnable bombTask = null;
+    private final List<Wither> spawnedWithers = new ArrayList<>();
+    private BukkitRunnable witherMoveTask = null;
+    private BukkitRunnable bombTask = null;
 
     // For identifying our color bomb projectiles
-    private static final Set<WitherSkull> colorProjectiles =
+    private final Set<WitherSkull> colorProjectiles =
             Collections.synchronizedSet(new HashSet<>());
 
     // Spawns 4 Withers overhead (AI off) that:
@@ -193,26 +231,25 @@ public class CrazyEffectManager implements Listener {
     // - shoot color bombs every 2 seconds
     // - bombs skip the outer 5 blocks when picking an impact target
     // - bridging remains safe from damage
-    public static void startWitherEffect(
+    public void startWitherEffect(
             ColorPartyPlugin plugin,
             int floorSize, int startX, int startZ, int yFloor
     ) {
         stopWitherEffect();
 
-        World cpWorld = Bukkit.getWorld(ColorPartyPlugin.MINIGAME_WORLD_NAME);
+        World cpWorld = Bukkit.getWorld(worldName);
         if (cpWorld == null) return;
 
         spawnedWithers.clear();
         colorProjectiles.clear();
 
-        Random rand = new Random();
         int witherCount = 4;
         int witherY = yFloor + 10; // e.g. 130 if floor=120
 
         // Spawn 4 withers in random x,z within the 64x64
         for (int i = 0; i < witherCount; i++) {
-            int rx = startX + rand.nextInt(floorSize);
-            int rz = startZ + rand.nextInt(floorSize);
+            int rx = startX + random.nextInt(floorSize);
+            int rz = startZ + random.nextInt(floorSize);
             Location loc = new Location(cpWorld, rx + 0.5, witherY, rz + 0.5);
 
             Wither w = (Wither) cpWorld.spawnEntity(loc, EntityType.WITHER);
@@ -226,26 +263,26 @@ public class CrazyEffectManager implements Listener {
         }
 
         // Movement => manually teleport every 5 ticks for smoother drift
-        witherMoveTask = new BukkitRunnable() {
+        witherMoveTask = new TaskProfiler.ProfiledRunnable(plugin.getProfiler(), "crazy.wither-move") {
             // A "speed" factor: how many blocks to move each cycle
             final double speed = 0.6;
             final Map<UUID, Location> targets = new HashMap<>();
 
             @Override
-            public void run() {
+            protected void tick() {
                 for (Wither w : spawnedWithers) {
                     if (w.isDead()) continue;
 
                     // Pick or keep a random target in the 64x64 overhead
                     targets.putIfAbsent(w.getUniqueId(),
-                            pickRandomWitherTarget(rand, cpWorld, floorSize, startX, startZ, witherY));
+                            pickRandomWitherTarget(random, cpWorld, floorSize, startX, startZ, witherY));
 
                     Location target = targets.get(w.getUniqueId());
                     Location curr   = w.getLocation();
 
                     // If near target, pick new
                     if (curr.distanceSquared(target) < 4.0) {
-                        target = pickRandomWitherTarget(rand, cpWorld, floorSize, startX, startZ, witherY);
+                        target = pickRandomWitherTarget(random, cpWorld, floorSize, startX, startZ, witherY);
                         targets.put(w.getUniqueId(), target);
                     }
 
@@ -273,10 +310,10 @@ public class CrazyEffectManager implements Listener {
         witherMoveTask.runTaskTimer(plugin, 0L, 5L);
 
         // Bomb task, every 2s, 40 ticks
-        bombTask = new BukkitRunnable() {
+        bombTask = new TaskProfiler.ProfiledRunnable(plugin.getProfiler(), "crazy.bombs") {
             int shooterIndex = 0;
             @Override
-            public void run() {
+            protected void tick() {
                 if (spawnedWithers.isEmpty()) return;
                 if (shooterIndex >= spawnedWithers.size()) {
                     shooterIndex = 0;
@@ -295,23 +332,22 @@ public class CrazyEffectManager implements Listener {
     // pickRandomWitherTarget => any coordinate within the full 64x64 region,
     // so withers roam freely above the entire floor
     private static Location pickRandomWitherTarget(
-            Random rand, World w,
+            RandomGenerator random, World w,
             int floorSize, int sx, int sz, int witherY
     ) {
-        int rx = sx + rand.nextInt(floorSize);
-        int rz = sz + rand.nextInt(floorSize);
+        int rx = sx + random.nextInt(floorSize);
+        int rz = sz + random.nextInt(floorSize);
         return new Location(w, rx + 0.5, witherY, rz + 0.5);
     }
 
     // Actually spawn a real WitherSkull projectile from the wither's location,
     // but skipping the outer 5 blocks => bombs land in [sx+5.. sx+floorSize-6].
-    private static void spawnColorBombProjectile(
+    private void spawnColorBombProjectile(
             Wither shooter, World world,
             int floorSize, int sx, int sz, int yFloor
     ) {
         if (shooter == null || shooter.isDead()) return;
 
-        Random rand = new Random();
         if (floorSize <= 10) {
             // Safety check => can't skip outer 5 blocks if floor <= 10
             return;
@@ -319,10 +355,10 @@ public class CrazyEffectManager implements Listener {
 
         // Choose x in [sx+5 .. sx+floorSize-6]
         int innerWidth = floorSize - 10; // skipping 5 on each side
-        int tx = sx + 5 + rand.nextInt(innerWidth);
+        int tx = sx + 5 + random.nextInt(innerWidth);
 
         // Same for z
-        int tz = sz + 5 + rand.nextInt(innerWidth);
+        int tz = sz + 5 + random.nextInt(innerWidth);
 
         Location target = new Location(world, tx + 0.5, yFloor, tz + 0.5);
 
@@ -352,26 +388,31 @@ public class CrazyEffectManager implements Listener {
             Material.BLACK_TERRACOTTA
     };
 
-    private static Material randomTerracotta(Random rand) {
-        return TERRACOTTA_COLORS[rand.nextInt(TERRACOTTA_COLORS.length)];
+    private static Material randomTerracotta(RandomGenerator random) {
+        return TERRACOTTA_COLORS[random.nextInt(TERRACOTTA_COLORS.length)];
     }
 
-    // color a 3-block radius, clamp Y=120 so floor is always recolored
-    private static void splashColorBomb(
+    // color a 3-block radius, clamp Y to the floor so it is always recolored
+    private void splashColorBomb(
             World world, Location impact,
             int floorSize, int sx, int sz
     ) {
-        impact.setY(120.0);
+        impact.setY(floorY);
+        splashColorBomb(writer(), world, impact.getBlockX(), impact.getBlockZ(), floorY, floorSize, sx, sz, random);
+    }
 
-        int ix = impact.getBlockX();
-        int iz = impact.getBlockZ();
+    // The block part of a color bomb, static so FloorBenchmark can run it without a plugin
+    static void splashColorBomb(
+            FloorWriter writer, World world, int ix, int iz, int floorY,
+            int floorSize, int sx, int sz, RandomGenerator random
+    ) {
         // Skip if outside floor region => bridging is safe
         if (ix < sx || ix >= sx + floorSize || iz < sz || iz >= sz + floorSize) {
             return;
         }
 
         int radius = 3;
-        Random rand = new Random();
+        FloorWriter.Batch batch = writer.batch(world);
         for (int x = ix - radius; x <= ix + radius; x++) {
             for (int z = iz - radius; z <= iz + radius; z++) {
                 double dist = Math.sqrt((x - ix)*(x - ix) + (z - iz)*(z - iz));
@@ -379,17 +420,17 @@ public class CrazyEffectManager implements Listener {
                     if (x < sx || x >= sx + floorSize || z < sz || z >= sz + floorSize) {
                         continue;
                     }
-                    Block b = world.getBlockAt(x, 120, z);
-                    if (b.getType() != Material.AIR) {
-                        b.setType(randomTerracotta(rand));
+                    if (writer.getType(world, x, floorY, z) != Material.AIR) {
+                        batch.add(x, floorY, z, randomTerracotta(random));
                     }
                 }
             }
         }
+        batch.submit();
     }
 
     // STOPPING / CLEANUP
-    public static void stopWitherEffect() {
+    public void stopWitherEffect() {
         if (witherMoveTask != null) {
             witherMoveTask.cancel();
             witherMoveTask = null;
@@ -408,8 +449,8 @@ public class CrazyEffectManager implements Listener {
     }
 
 
-    private static final List<JockeyPair> chickenJockeys = new ArrayList<>();
-    private static BukkitRunnable jockeyMoveTask = null;
+    private final List<JockeyPair> chickenJockeys = new ArrayList<>();
+    private BukkitRunnable jockeyMoveTask = null;
 
     // Simple container class for one Chicken + its rider Zombie.
     // We track both, so we can despawn them together
@@ -425,23 +466,22 @@ public class CrazyEffectManager implements Listener {
 
     // Spawns 7 chicken jockeys, each constantly running around
     // with a color-trail effect. If they get close to a player, knock the player back
-    public static void startChickenJockeyEffect(
+    public void startChickenJockeyEffect(
             ColorPartyPlugin plugin,
             int floorSize, int startX, int startZ, int yFloor
     ) {
         stopChickenJockeyEffect(); // clean up any old effect
 
-        World cpWorld = Bukkit.getWorld(ColorPartyPlugin.MINIGAME_WORLD_NAME);
+        World cpWorld = Bukkit.getWorld(worldName);
         if (cpWorld == null) return;
 
-        Random rand = new Random();
         int spawnY = yFloor + 1; // just above the floor
         int numJockeys = 7;      // Now 7 chicken jockeys
 
         // Spawn the jockeys
         for (int i = 0; i < numJockeys; i++) {
-            int rx = startX + rand.nextInt(floorSize);
-            int rz = startZ + rand.nextInt(floorSize);
+            int rx = startX + random.nextInt(floorSize);
+            int rz = startZ + random.nextInt(floorSize);
             Location loc = new Location(cpWorld, rx + 0.5, spawnY, rz + 0.5);
 
             // Spawn a chicken
@@ -468,7 +508,7 @@ public class CrazyEffectManager implements Listener {
         }
 
         // Create a repeating task to constantly give them new targets & do color-trail
-        jockeyMoveTask = new BukkitRunnable() {
+        jockeyMoveTask = new TaskProfiler.ProfiledRunnable(plugin.getProfiler(), "crazy.jockeys") {
             // Map each jockey (rider) to its current target location
             private final Map<UUID, Location> targets = new HashMap<>();
             // Increase the velocity multiplier (faster movement)
@@ -476,7 +516,7 @@ public class CrazyEffectManager implements Listener {
             private final double knockbackStrength = 1.2;
 
             @Override
-            public void run() {
+            protected void tick() {
                 if (chickenJockeys.isEmpty()) {
                     this.cancel();
                     return;
@@ -503,7 +543,7 @@ public class CrazyEffectManager implements Listener {
                     Location currLoc = rider.getLocation();
 
                     // If not in the minigame world, remove them
-                    if (!ColorPartyPlugin.MINIGAME_WORLD_NAME.equals(currLoc.getWorld().getName())) {
+                    if (!worldName.equals(currLoc.getWorld().getName())) {
                         rider.remove();
                         chicken.remove();
                         it.remove();
@@ -513,7 +553,7 @@ public class CrazyEffectManager implements Listener {
                     // Color trail: EVERY block they step on changes color
                     if (currLoc.getY() >= yFloor) {
                         Block below = currLoc.getWorld().getBlockAt(currLoc.getBlockX(), yFloor, currLoc.getBlockZ());
-                        Material oldColor = below.getType();
+                        Material oldColor = writer().getType(below);
 
                         // Only recolor if it's not air (or not something you want to skip)
                         if (oldColor != Material.AIR) {
@@ -527,29 +567,29 @@ public class CrazyEffectManager implements Listener {
                                     Material.BLACK_TERRACOTTA
                             };
 
-                            Material newColor = terras[rand.nextInt(terras.length)];
+                            Material newColor = terras[random.nextInt(terras.length)];
                             // If the new color is the same as the old one, pick again
                             int tries = 0;
                             while (newColor == oldColor && tries < 16) {
-                                newColor = terras[rand.nextInt(terras.length)];
+                                newColor = terras[random.nextInt(terras.length)];
                                 tries++;
                             }
 
-                            below.setType(newColor);
+                            writer().set(below, newColor);
                         }
                     }
 
                     // Acquire or maintain a random target in the 64×64 region
                     UUID riderId = rider.getUniqueId();
                     targets.putIfAbsent(riderId,
-                            pickRandomTarget(rand, currLoc.getWorld(), floorSize, startX, startZ, yFloor));
+                            pickRandomTarget(random, currLoc.getWorld(), floorSize, startX, startZ, yFloor));
 
                     Location targetLoc = targets.get(riderId);
                     double dist = currLoc.distanceSquared(targetLoc);
 
                     // If the jockey is close, pick a new target
                     if (dist < 2.0) {
-                        targetLoc = pickRandomTarget(rand, currLoc.getWorld(), floorSize, startX, startZ, yFloor);
+                        targetLoc = pickRandomTarget(random, currLoc.getWorld(), floorSize, startX, startZ, yFloor);
                         targets.put(riderId, targetLoc);
                     }
 
@@ -582,17 +622,17 @@ public class CrazyEffectManager implements Listener {
 
     // Pick a random location within the 64×64 floor region
     private static Location pickRandomTarget(
-            Random rand, World w,
+            RandomGenerator random, World w,
             int floorSize, int sx, int sz, int yFloor
     ) {
-        int rx = sx + rand.nextInt(floorSize);
-        int rz = sz + rand.nextInt(floorSize);
+        int rx = sx + random.nextInt(floorSize);
+        int rz = sz + random.nextInt(floorSize);
         return new Location(w, rx + 0.5, yFloor + 1, rz + 0.5);
     }
 
     // Stop the chicken jockey effect. Cancel the movement task, then wait 2 seconds
     // so they can start falling, and remove both chickens and zombies.
-    public static void stopChickenJockeyEffect() {
+    public void stopChickenJockeyEffect() {
         if (jockeyMoveTask != null) {
             jockeyMoveTask.cancel();
             jockeyMoveTask = null;
@@ -609,7 +649,7 @@ public class CrazyEffectManager implements Listener {
         }
     }
 
-    public static void stopChickenJockeyEffect2() {
+    public void stopChickenJockeyEffect2() {
         for (JockeyPair pair : chickenJockeys) {
             if (pair.rider != null && !pair.rider.isDead()) {
                 pair.rider.remove();
@@ -622,7 +662,7 @@ public class CrazyEffectManager implements Listener {
     }
 
 
-    public static void stopAllEffects() {
+    public void stopAllEffects() {
         stopSnowEffect();
         stopRollingEffect();
         stopWitherEffect();
@@ -650,10 +690,10 @@ public class CrazyEffectManager implements Listener {
                 World w = e.getEntity().getWorld();
                 Location impactLoc = e.getEntity().getLocation();
 
-                // Hard-code: floor is 64 wide, from (-32,-32) up to (31,31)
+                // The floor is 64 wide, from the arena's start corner
                 int floorSize = 64;
-                int sx = -32;
-                int sz = -32;
+                int sx = floorStartX;
+                int sz = floorStartZ;
 
                 splashColorBomb(w, impactLoc, floorSize, sx, sz);
             }
@@ -0,0 +1,107 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * DirtyRegion remembers every arena block the FloorWriter changes after a reset, together
+ * with the material it had before the first change (floor tiles, beacons, snow, carpets,
+ * splash zones all go through the FloorWriter). Blocks that aren't one of the FloorState's
+ * plain materials (light blocks, stairs, walls) also keep their BlockData, so they come back
+ * with their level or facing instead of the default state.
+ *
+ * restore() puts exactly those blocks back, through the FloorWriter so the work is spread
+ * over ticks, which makes a reset cost what the game changed instead of a sweep over the
+ * whole arena volume. Changes in other worlds, outside the x/z bounds (the arena this region
+ * belongs to, when several arenas share the world) or made before start() are not recorded.
+ * All methods must be called on the main thread.
+ */
+public class DirtyRegion {
+
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+
+    private World world;
+    // Packed position -> material before the first change
+    private final Map<Long, Material> originals = new LinkedHashMap<>();
+    // Packed position -> block state before the first change, for the blocks that had one worth keeping
+    private final Map<Long, BlockData> states = new HashMap<>();
+
+    // Records changes with minX <= x <= maxX and minZ <= z <= maxZ
+    public DirtyRegion(int minX, int minZ, int maxX, int maxZ) {
+        this.minX = minX;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxZ = maxZ;
+    }
+
+    // The arena in this world is clean now, record changes from here on
+    public void start(World w) {
+        world = w;
+        originals.clear();
+        states.clear();
+    }
+
+    // The world is going away, forget it and everything recorded for it
+    public void stop() {
+        world = null;
+        originals.clear();
+        states.clear();
+    }
+
+    public boolean isTracking(World w) {
+        return world != null && world.equals(w);
+    }
+
+    // Called by the FloorWriter before it changes a block, only the first call per block counts
+    public void mark(World w, int x, int y, int z, Material original, Block block) {
+        if (world == null || !world.equals(w)) return;
+        if (x < minX || x > maxX || z < minZ || z > maxZ) return;
+        long key = key(x, y, z);
+        if (originals.putIfAbsent(key, original) == null && !FloorState.tracks(original)) {
+            states.put(key, block.getBlockData());
+        }
+    }
+
+    // Number of blocks that differ from the clean arena (at most)
+    public int size() {
+        return originals.size();
+    }
+
+    // Writes the recorded materials back. The future completes with the number of blocks changed;
+    // call start() once it has, since the restore writes are recorded like any other change.
+    public CompletableFuture<Integer> restore(FloorWriter writer) {
+        if (world == null || originals.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        FloorWriter.Batch batch = writer.batch(world);
+        for (Map.Entry<Long, Material> entry : originals.entrySet()) {
+            long key = entry.getKey();
+            int x = (int) (key >> 38);
+            int y = (int) (key << 52 >> 52);
+            int z = (int) (key << 26 >> 38);
+            BlockData state = states.get(key);
+            if (state != null) {
+                batch.add(x, y, z, state);
+            } else {
+                batch.add(x, y, z, entry.getValue());
+            }
+        }
+        originals.clear();
+        states.clear();
+        return batch.submit();
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * FloorApplier turns the dance floor into a target FloorLayout by writing only the tiles
+ * whose material differs from what is there now. Tiles that already match (for example the
+ * safe color left over from the last round, or a design shared by two rounds) are not
+ * touched, so no block update or client block change is sent for them. There is no AIR
+ * clearing pass: every tile is either already correct or overwritten once.
+ *
+ * The current floor is taken from the FloorWriter (the FloorState plus any writes still queued)
+ * and the changed tiles are handed to it as one batch.
+ */
+public final class FloorApplier {
+
+    private FloorApplier() {
+    }
+
+    // (sx, sz) is the floor's start corner. The future completes with the number of blocks changed.
+    public static CompletableFuture<Integer> apply(FloorWriter writer, World w, int sx, int sz, int y, FloorLayout layout) {
+        int size = FloorLayout.SIZE;
+        FloorWriter.Batch batch = writer.batch(w);
+        for (int xx = 0; xx < size; xx++) {
+            for (int zz = 0; zz < size; zz++) {
+                Material target = layout.getMaterial(xx, zz);
+                if (writer.getType(w, sx + xx, y, sz + zz) != target) {
+                    batch.add(sx + xx, y, sz + zz, target);
+                }
+            }
+        }
+        return batch.submit();
+    }
+}
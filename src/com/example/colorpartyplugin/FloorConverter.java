@@ -0,0 +1,89 @@
+package com.example.colorpartyplugin;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FloorConverter is an offline tool that converts ColorPartyDesigner JSON floors
+ * into the binary .cpfloor format read by the plugin.
+ *
+ * Usage (Spigot is not needed, only Gson):
+ *   java -cp ColorPartyPlugin.jar:gson-2.9.1.jar com.example.colorpartyplugin.FloorConverter
+ *        [-o outputDir] floor_hearts.json [more.json | directory ...]
+ *
+ * Directories are scanned for *.json files. Output files are written next to the
+ * input (or into outputDir) with the same name and a .cpfloor extension.
+ */
+public final class FloorConverter {
+
+    private FloorConverter() {
+    }
+
+    public static void main(String[] args) {
+        Path outputDir = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("-o".equals(args[i]) && i + 1 < args.length) {
+                outputDir = Paths.get(args[++i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Usage: FloorConverter [-o outputDir] <floor.json | directory> ...");
+            System.exit(1);
+        }
+
+        int converted = 0;
+        int failed = 0;
+        for (Path input : expand(inputs)) {
+            Path dir = outputDir != null ? outputDir : input.toAbsolutePath().getParent();
+            Path output = dir.resolve(FloorFormat.baseName(input.getFileName().toString()) + FloorFormat.EXTENSION);
+            try {
+                Files.createDirectories(dir);
+                FloorFormat.write(output, readDesignerJson(input));
+                System.out.println(input + " -> " + output);
+                converted++;
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Failed to convert " + input + ": " + e.getMessage());
+                failed++;
+            }
+        }
+        System.out.println("Converted " + converted + " floor(s), " + failed + " failed.");
+        if (failed > 0) {
+            System.exit(2);
+        }
+    }
+
+    private static List<Path> expand(List<Path> inputs) {
+        List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(input, "*" + FloorFormat.JSON_EXTENSION)) {
+                    for (Path p : stream) {
+                        files.add(p);
+                    }
+                } catch (IOException e) {
+                    System.err.println("Could not list " + input + ": " + e.getMessage());
+                }
+            } else {
+                files.add(input);
+            }
+        }
+        return files;
+    }
+
+    // Reads a designer JSON file into designer-order palette indices, refusing files with problems
+    static byte[] readDesignerJson(Path path) throws IOException {
+        FloorLayoutParser.Result result = FloorLayoutParser.parse(path);
+        if (!result.isValid()) {
+            throw new IOException(result.summary());
+        }
+        return result.getCells();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.colorpartyplugin;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * FloorFormat reads and writes the compact binary .cpfloor dance floor format.
+ *
+ * Layout of a .cpfloor file (2054 bytes for a 64x64 floor):
+ *   4 bytes     magic "CPFL"
+ *   1 byte      format version (1)
+ *   1 byte      floor size (64)
+ *   2048 bytes  4-bit palette indices, two cells per byte, high nibble first
+ *
+ * Cells are stored in designer order, index = x * 64 + z, using the same (x, z)
+ * as the ColorPartyDesigner JSON, so the 180-degree rotation is still applied on load.
+ * The palette is the fixed list of 16 terracotta colors below.
+ *
+ * This class has no Bukkit dependencies so the offline FloorConverter can use it.
+ */
+public final class FloorFormat {
+
+    public static final String EXTENSION = ".cpfloor";
+    public static final String JSON_EXTENSION = ".json";
+
+    public static final int SIZE = 64;
+    public static final int CELLS = SIZE * SIZE;
+
+    private static final byte[] MAGIC = { 'C', 'P', 'F', 'L' };
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = MAGIC.length + 2;
+    public static final int FILE_LENGTH = HEADER_LENGTH + CELLS / 2;
+
+    // Material names of the 16 terracotta colors, index = 4-bit palette index
+    public static final String[] PALETTE_NAMES = {
+            "WHITE_TERRACOTTA", "ORANGE_TERRACOTTA", "MAGENTA_TERRACOTTA",
+            "LIGHT_BLUE_TERRACOTTA", "YELLOW_TERRACOTTA", "LIME_TERRACOTTA",
+            "PINK_TERRACOTTA", "GRAY_TERRACOTTA", "LIGHT_GRAY_TERRACOTTA",
+            "CYAN_TERRACOTTA", "PURPLE_TERRACOTTA", "BLUE_TERRACOTTA",
+            "BROWN_TERRACOTTA", "GREEN_TERRACOTTA", "RED_TERRACOTTA",
+            "BLACK_TERRACOTTA"
+    };
+
+    // Cells missing from a design default to LIGHT_GRAY_TERRACOTTA
+    public static final byte DEFAULT_INDEX = 8;
+
+    private FloorFormat() {
+    }
+
+    // Returns the palette index for a material name (case-insensitive, "minecraft:" prefix allowed), or -1
+    public static int paletteIndex(String materialName) {
+        String name = materialName.toUpperCase(Locale.ROOT);
+        if (name.startsWith("MINECRAFT:")) {
+            name = name.substring("MINECRAFT:".length());
+        }
+        for (int i = 0; i < PALETTE_NAMES.length; i++) {
+            if (PALETTE_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Design name without extension, e.g. "floor_hearts.json" -> "floor_hearts"
+    public static String baseName(String fileName) {
+        if (fileName.endsWith(EXTENSION)) {
+            return fileName.substring(0, fileName.length() - EXTENSION.length());
+        }
+        if (fileName.endsWith(JSON_EXTENSION)) {
+            return fileName.substring(0, fileName.length() - JSON_EXTENSION.length());
+        }
+        return fileName;
+    }
+
+    // Memory-maps a .cpfloor file and returns its cells in designer order
+    public static byte[] read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length != FILE_LENGTH) {
+                throw new IOException(path.getFileName() + " has length " + length + ", expected " + FILE_LENGTH);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return decode(buffer, path.getFileName().toString());
+        }
+    }
+
+    public static void write(Path path, byte[] cells) throws IOException {
+        ByteBuffer buffer = encode(cells);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    static byte[] decode(ByteBuffer buffer, String name) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) {
+                throw new IOException(name + " is not a .cpfloor file");
+            }
+        }
+        byte version = buffer.get(MAGIC.length);
+        if (version != VERSION) {
+            throw new IOException(name + " has unsupported .cpfloor version " + version);
+        }
+        int size = buffer.get(MAGIC.length + 1) & 0xFF;
+        if (size != SIZE) {
+            throw new IOException(name + " has floor size " + size + ", expected " + SIZE);
+        }
+
+        byte[] cells = new byte[CELLS];
+        for (int i = 0; i < CELLS / 2; i++) {
+            int packed = buffer.get(HEADER_LENGTH + i);
+            cells[i * 2] = (byte) ((packed >> 4) & 0x0F);
+            cells[i * 2 + 1] = (byte) (packed & 0x0F);
+        }
+        return cells;
+    }
+
+    static ByteBuffer encode(byte[] cells) {
+        if (cells.length != CELLS) {
+            throw new IllegalArgumentException("Floor must have " + CELLS + " cells, got " + cells.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_LENGTH);
+        buffer.put(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte) SIZE);
+        for (int i = 0; i < CELLS; i += 2) {
+            buffer.put((byte) (((cells[i] & 0x0F) << 4) | (cells[i + 1] & 0x0F)));
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
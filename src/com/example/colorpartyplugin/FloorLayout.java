@@ -0,0 +1,178 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * FloorLayout is an immutable, pre-parsed 64x64 dance floor design.
+ * Each cell holds an index into PALETTE, stored in world order (the 180-degree
+ * rotation from the JSON file has already been applied), so building the floor
+ * is a straight copy from memory with no parsing or rotation math.
+ *
+ * Both the designer floors and the procedural variations produce a FloorLayout,
+ * and the colors it uses are kept as a 16-bit mask (bit i = PALETTE[i]) with a
+ * tile count per color, so picking the safe color needs no Set of Materials.
+ */
+public final class FloorLayout {
+
+    public static final int SIZE = FloorFormat.SIZE;
+    public static final int CELLS = FloorFormat.CELLS;
+
+    // The 16 terracotta colors, same order as the ColorPartyDesigner and pickClayColors
+    public static final Material[] PALETTE = new Material[FloorFormat.PALETTE_NAMES.length];
+
+    // Material ordinal -> palette index, -1 for anything that is not a floor color
+    private static final byte[] INDEX_BY_ORDINAL = new byte[Material.values().length];
+
+    static {
+        Arrays.fill(INDEX_BY_ORDINAL, (byte) -1);
+        for (int i = 0; i < PALETTE.length; i++) {
+            PALETTE[i] = Material.valueOf(FloorFormat.PALETTE_NAMES[i]);
+            INDEX_BY_ORDINAL[PALETTE[i].ordinal()] = (byte) i;
+        }
+    }
+
+    // Cells missing from a file default to LIGHT_GRAY_TERRACOTTA
+    public static final byte DEFAULT_INDEX = FloorFormat.DEFAULT_INDEX;
+
+    // Solid light gray floor, used whenever a design cannot be loaded
+    public static final FloorLayout LIGHT_GRAY = solid(PALETTE[DEFAULT_INDEX]);
+
+    // cells[localX * SIZE + localZ] = palette index
+    private final byte[] cells;
+    private final int usedMask;
+    private final int[] counts = new int[PALETTE.length];
+    // One TileMask per palette color
+    private final long[][] colorMasks = new long[PALETTE.length][TileMask.WORDS];
+
+    // The array is owned by the layout from here on, callers must not keep a reference
+    FloorLayout(byte[] cells) {
+        if (cells.length != CELLS) {
+            throw new IllegalArgumentException("Floor layout must have " + CELLS + " cells, got " + cells.length);
+        }
+        this.cells = cells;
+
+        int mask = 0;
+        for (int i = 0; i < CELLS; i++) {
+            int index = cells[i];
+            counts[index]++;
+            mask |= 1 << index;
+            colorMasks[index][i >>> 6] |= 1L << (i & 63);
+        }
+        this.usedMask = mask;
+    }
+
+    // Builds a layout from designer-order cells (x * 64 + z, as in the JSON and .cpfloor files).
+    // Rotating 180 degrees maps (x, z) to (63 - x, 63 - z), which is simply the reversed array.
+    public static FloorLayout fromDesignerCells(byte[] designerCells) {
+        byte[] cells = new byte[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            cells[CELLS - 1 - i] = designerCells[i];
+        }
+        return new FloorLayout(cells);
+    }
+
+    // A floor made of a single color
+    public static FloorLayout solid(Material color) {
+        return new Builder().fill(color).build();
+    }
+
+    // localX/localZ are 0..63 offsets from the floor's start corner
+    public Material getMaterial(int localX, int localZ) {
+        return PALETTE[cells[localX * SIZE + localZ]];
+    }
+
+    public int getPaletteIndex(int localX, int localZ) {
+        return cells[localX * SIZE + localZ];
+    }
+
+    // Bit i is set if PALETTE[i] appears at least once on the floor
+    public int getUsedMask() {
+        return usedMask;
+    }
+
+    public boolean uses(Material color) {
+        int index = paletteIndex(color);
+        return index >= 0 && (usedMask & (1 << index)) != 0;
+    }
+
+    // Number of tiles of a color
+    public int getCount(int paletteIndex) {
+        return counts[paletteIndex];
+    }
+
+    public int getCount(Material color) {
+        int index = paletteIndex(color);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    // Tiles of a color as a TileMask, the array must not be modified
+    public long[] getColorMask(int paletteIndex) {
+        return colorMasks[paletteIndex];
+    }
+
+    // Number of different colors on the floor
+    public int getColorCount() {
+        return Integer.bitCount(usedMask);
+    }
+
+    // Picks one of the used colors uniformly, this is the safe color for a round
+    public Material pickColor(RandomGenerator random) {
+        int remaining = random.nextInt(Integer.bitCount(usedMask));
+        int mask = usedMask;
+        while (remaining-- > 0) {
+            mask &= mask - 1; // clear the lowest set bit
+        }
+        return PALETTE[Integer.numberOfTrailingZeros(mask)];
+    }
+
+    // Returns the palette index for a terracotta color, or -1 if it is not in the palette
+    public static int paletteIndex(Material material) {
+        return INDEX_BY_ORDINAL[material.ordinal()];
+    }
+
+    /**
+     * Builder is used by the procedural variations in BuildVariations. It starts as a
+     * light gray floor; colors are written with set() and build() hands the grid to a
+     * new FloorLayout. A builder must not be used again after build().
+     */
+    public static final class Builder {
+        private byte[] cells = new byte[CELLS];
+
+        public Builder() {
+            Arrays.fill(cells, DEFAULT_INDEX);
+        }
+
+        public Builder fill(Material color) {
+            Arrays.fill(cells, index(color));
+            return this;
+        }
+
+        // localX/localZ are 0..63 offsets from the floor's start corner
+        public Builder set(int localX, int localZ, Material color) {
+            cells[localX * SIZE + localZ] = index(color);
+            return this;
+        }
+
+        public Builder set(int localX, int localZ, int paletteIndex) {
+            cells[localX * SIZE + localZ] = (byte) paletteIndex;
+            return this;
+        }
+
+        public FloorLayout build() {
+            FloorLayout layout = new FloorLayout(cells);
+            cells = null;
+            return layout;
+        }
+
+        private static byte index(Material color) {
+            byte index = INDEX_BY_ORDINAL[color.ordinal()];
+            if (index < 0) {
+                throw new IllegalArgumentException(color + " is not a floor color");
+            }
+            return index;
+        }
+    }
+}
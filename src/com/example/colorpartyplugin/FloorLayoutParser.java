@@ -0,0 +1,231 @@
+package com.example.colorpartyplugin;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * FloorLayoutParser is a streaming parser for ColorPartyDesigner JSON floors:
+ *
+ *   { "RANDOMIZE": "False", "WHITE_TERRACOTTA": [ {"x": 0, "z": 0}, ... ], ... }
+ *
+ * Coordinates are read token by token with Gson's JsonReader and written straight into a
+ * designer-order palette grid (x * 64 + z), so no JSON tree or per-coordinate objects are built.
+ * Instead of logging as it goes, the parser collects structured Problems (unknown materials,
+ * duplicate cells, out-of-range coordinates, malformed entries) that the caller can report.
+ *
+ * Like FloorFormat, this class has no Bukkit dependencies.
+ */
+public final class FloorLayoutParser {
+
+    // Top-level keys written by the designer that are not materials
+    private static final String RANDOMIZE_KEY = "RANDOMIZE";
+
+    // Only the first few problems of each file are kept, the rest are just counted
+    private static final int MAX_PROBLEMS = 20;
+
+    public enum ProblemType {
+        UNKNOWN_MATERIAL,
+        DUPLICATE_CELL,
+        OUT_OF_RANGE,
+        MALFORMED
+    }
+
+    public record Problem(ProblemType type, String material, int x, int z, String message) {
+        @Override
+        public String toString() {
+            return type + " " + message;
+        }
+    }
+
+    public static final class Result {
+        private final String name;
+        private final byte[] cells;
+        private final int coordinates;
+        private final int problemCount;
+        private final List<Problem> problems;
+
+        private Result(String name, byte[] cells, int coordinates, int problemCount, List<Problem> problems) {
+            this.name = name;
+            this.cells = cells;
+            this.coordinates = coordinates;
+            this.problemCount = problemCount;
+            this.problems = problems;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Designer-order palette indices, cells missing from the file are FloorFormat.DEFAULT_INDEX
+        public byte[] getCells() {
+            return cells;
+        }
+
+        // Number of valid coordinates that were applied to the grid
+        public int getCoordinates() {
+            return coordinates;
+        }
+
+        // Total number of problems, may be larger than getProblems().size()
+        public int getProblemCount() {
+            return problemCount;
+        }
+
+        public List<Problem> getProblems() {
+            return problems;
+        }
+
+        public boolean isValid() {
+            return problemCount == 0;
+        }
+
+        // Summary for the server log, one extra line per recorded problem
+        public String summary() {
+            if (problemCount == 0) {
+                return name + ": " + coordinates + " coordinates, no problems";
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(name).append(": ").append(coordinates).append(" coordinates, ")
+                    .append(problemCount).append(" problem(s)");
+            for (Problem problem : problems) {
+                sb.append("\n  - ").append(problem);
+            }
+            if (problemCount > problems.size()) {
+                sb.append("\n  - ... ").append(problemCount - problems.size()).append(" more");
+            }
+            return sb.toString();
+        }
+    }
+
+    private FloorLayoutParser() {
+    }
+
+    public static Result parse(Path path) throws IOException {
+        // JsonReader keeps its own small buffer, so no BufferedReader on top
+        try (Reader reader = new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8)) {
+            return parse(reader, path.getFileName().toString());
+        }
+    }
+
+    // Throws IOException only if the document is not valid JSON at all
+    public static Result parse(Reader in, String name) throws IOException {
+        int size = FloorFormat.SIZE;
+        byte[] cells = new byte[FloorFormat.CELLS];
+        Arrays.fill(cells, FloorFormat.DEFAULT_INDEX);
+        // One bit per cell, to detect coordinates listed more than once
+        long[] seen = new long[FloorFormat.CELLS / 64];
+
+        Collector problems = new Collector();
+        int coordinates = 0;
+
+        JsonReader reader = new JsonReader(in);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                if (!RANDOMIZE_KEY.equalsIgnoreCase(key)) {
+                    problems.add(ProblemType.MALFORMED, key, -1, -1, key + " is not a coordinate list");
+                }
+                reader.skipValue();
+                continue;
+            }
+            int index = FloorFormat.paletteIndex(key);
+            if (index < 0) {
+                problems.add(ProblemType.UNKNOWN_MATERIAL, key, -1, -1, "unknown material " + key);
+                reader.skipValue();
+                continue;
+            }
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    problems.add(ProblemType.MALFORMED, key, -1, -1, key + " contains a non-object entry");
+                    reader.skipValue();
+                    continue;
+                }
+                int x = Integer.MIN_VALUE;
+                int z = Integer.MIN_VALUE;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String field = reader.nextName();
+                    if (reader.peek() != JsonToken.NUMBER) {
+                        reader.skipValue();
+                    } else if ("x".equals(field)) {
+                        x = nextCoordinate(reader);
+                    } else if ("z".equals(field)) {
+                        z = nextCoordinate(reader);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+
+                if (x == Integer.MIN_VALUE || z == Integer.MIN_VALUE) {
+                    problems.add(ProblemType.MALFORMED, key, -1, -1, key + " entry is missing a numeric x or z");
+                    continue;
+                }
+                if (x < 0 || x >= size || z < 0 || z >= size) {
+                    problems.add(ProblemType.OUT_OF_RANGE, key, x, z,
+                            key + " at x=" + x + ", z=" + z + " is outside 0.." + (size - 1));
+                    continue;
+                }
+                int cell = x * size + z;
+                long bit = 1L << (cell & 63);
+                if ((seen[cell >>> 6] & bit) != 0) {
+                    // Later entries win, same as the old loaders
+                    problems.add(ProblemType.DUPLICATE_CELL, key, x, z,
+                            "x=" + x + ", z=" + z + " listed again as " + key
+                                    + " (was " + FloorFormat.PALETTE_NAMES[cells[cell]] + ")");
+                } else {
+                    seen[cell >>> 6] |= bit;
+                    coordinates++;
+                }
+                cells[cell] = (byte) index;
+            }
+            reader.endArray();
+        }
+        reader.endObject();
+
+        return new Result(name, cells, coordinates, problems.count, problems.list());
+    }
+
+    // Integer.MIN_VALUE if the number is not an int (e.g. 1.5), which is reported as MALFORMED
+    private static int nextCoordinate(JsonReader reader) throws IOException {
+        try {
+            return reader.nextInt();
+        } catch (NumberFormatException e) {
+            reader.skipValue();
+            return Integer.MIN_VALUE;
+        }
+    }
+
+    private static final class Collector {
+        private List<Problem> problems;
+        private int count;
+
+        void add(ProblemType type, String material, int x, int z, String message) {
+            count++;
+            if (problems == null) {
+                problems = new ArrayList<>();
+            }
+            if (problems.size() < MAX_PROBLEMS) {
+                problems.add(new Problem(type, material, x, z, message));
+            }
+        }
+
+        List<Problem> list() {
+            return problems == null ? Collections.emptyList() : Collections.unmodifiableList(problems);
+        }
+    }
+}
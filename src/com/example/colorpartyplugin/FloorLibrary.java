@@ -0,0 +1,266 @@
+package com.example.colorpartyplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FloorLibrary holds every parsed dance floor design from the plugin data folder.
+ * A design is looked up by name; floor_*.cpfloor and floor_*.json (as exported by the
+ * ColorPartyDesigner) are both accepted, and if a design exists in both formats the
+ * more recently modified file wins, so a fresh export from the designer is picked up
+ * even when the shipped .cpfloor is still present.
+ *
+ * The data folder is watched with a WatchService. Changed files are re-parsed on the
+ * watcher thread and the new layout is swapped in as a new immutable map, so lookups
+ * never block and a round that already holds a FloorLayout keeps using it unchanged.
+ * Designs that are not built in (see BUILT_IN) are registered as extra floor variations.
+ */
+public class FloorLibrary {
+
+    // Designs the game references by name, anything else is an extra variation
+    private static final Set<String> BUILT_IN = Set.of(
+            "floor_start",
+            "floor_gameover",
+            "floor_variation_1",
+            "floor_carrots",
+            "floor_hearts",
+            "floor_turtles",
+            "floor_concentric_squares",
+            "floor_connected_rings",
+            "floor_stars",
+            "floor_4section_bricks",
+            "floor_9squares",
+            "floor_3shapes",
+            "floor_5circles"
+    );
+
+    // Editors often write a file in several steps, wait for it to settle before parsing
+    private static final long SETTLE_MILLIS = 250;
+
+    private final ColorPartyPlugin plugin;
+    private final FloorVariationRegistry variations;
+
+    // Replaced as a whole on every change, never modified in place
+    private volatile Map<String, FloorLayout> layouts = Collections.emptyMap();
+    private volatile List<String> extraFloors = Collections.emptyList();
+
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    public FloorLibrary(ColorPartyPlugin plugin, FloorVariationRegistry variations) {
+        this.plugin = plugin;
+        this.variations = variations;
+    }
+
+    public static Set<String> getBuiltInFloors() {
+        return BUILT_IN;
+    }
+
+    // Returns the layout for a design, or null if it is missing or could not be parsed.
+    // Accepts "floor_hearts", "floor_hearts.json" or "floor_hearts.cpfloor".
+    public FloorLayout get(String floorName) {
+        return layouts.get(FloorFormat.baseName(floorName));
+    }
+
+    // floor_* designs in the data folder that are not built in, sorted by name
+    public List<String> getExtraFloors() {
+        return extraFloors;
+    }
+
+    public int size() {
+        return layouts.size();
+    }
+
+    // Parse every floor_* design in the data folder and replace the library with the result.
+    // Returns the number of designs that could not be loaded.
+    public synchronized int loadAll() {
+        Map<String, FloorLayout> loaded = new HashMap<>();
+        int failed = 0;
+        for (String name : listDesigns()) {
+            File file = resolve(name);
+            FloorLayout layout = file != null ? load(file) : null;
+            if (layout == null) {
+                failed++;
+            } else {
+                loaded.put(name, layout);
+            }
+        }
+        publish(loaded);
+        plugin.getLogger().info("Loaded " + loaded.size() + " dance floor(s), " + failed + " failed to load, "
+                + extraFloors.size() + " extra variation(s).");
+        return failed;
+    }
+
+    // Re-parse a single design. A file that fails to parse keeps its previous layout,
+    // so a half-saved file never replaces a working design.
+    public synchronized void reload(String floorName) {
+        String name = FloorFormat.baseName(floorName);
+        File file = resolve(name);
+        Map<String, FloorLayout> updated = new HashMap<>(layouts);
+        if (file == null) {
+            if (updated.remove(name) == null) return;
+            plugin.getLogger().info("Dance floor " + name + " was removed.");
+        } else {
+            FloorLayout layout = load(file);
+            if (layout == null) {
+                plugin.getLogger().warning("Keeping the previous version of " + name + ".");
+                return;
+            }
+            boolean added = updated.put(name, layout) == null;
+            plugin.getLogger().info((added ? "Added" : "Reloaded") + " dance floor " + name
+                    + (added && !BUILT_IN.contains(name) ? " as an extra variation." : "."));
+        }
+        publish(updated);
+    }
+
+    // Start watching the data folder for new, changed and deleted designs
+    public void startWatching() {
+        Path folder = plugin.getDataFolder().toPath();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            folder.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not watch " + folder + " for floor changes: " + e.getMessage());
+            return;
+        }
+        watcherThread = new Thread(this::watchLoop, "ColorParty-FloorWatcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    public void stopWatching() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {}
+            watchService = null;
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            watcherThread = null;
+        }
+    }
+
+    private void watchLoop() {
+        WatchService service = watchService;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                Set<String> changed = new TreeSet<>();
+                boolean overflow = false;
+                // Collect everything that happens while the files settle, then parse each design once
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflow = true;
+                        } else if (event.context() instanceof Path path && isDesign(path.toString())) {
+                            changed.add(FloorFormat.baseName(path.toString()));
+                        }
+                    }
+                    if (!key.reset()) return;
+                    key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+
+                if (overflow) {
+                    loadAll();
+                } else {
+                    for (String name : changed) {
+                        reload(name);
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // Plugin is disabling
+        } catch (RuntimeException e) {
+            plugin.getLogger().severe("Floor watcher stopped: " + e.getMessage());
+        }
+    }
+
+    private void publish(Map<String, FloorLayout> updated) {
+        List<String> extras = new ArrayList<>();
+        for (String name : new TreeSet<>(updated.keySet())) {
+            if (!BUILT_IN.contains(name)) {
+                extras.add(name);
+            }
+        }
+        layouts = Collections.unmodifiableMap(updated);
+        extraFloors = Collections.unmodifiableList(extras);
+        variations.setExtraFloors(extras);
+    }
+
+    private Set<String> listDesigns() {
+        Set<String> names = new TreeSet<>();
+        File[] files = plugin.getDataFolder().listFiles((dir, name) -> isDesign(name));
+        if (files != null) {
+            for (File file : files) {
+                names.add(FloorFormat.baseName(file.getName()));
+            }
+        }
+        return names;
+    }
+
+    private static boolean isDesign(String fileName) {
+        return fileName.startsWith("floor_")
+                && (fileName.endsWith(FloorFormat.EXTENSION) || fileName.endsWith(FloorFormat.JSON_EXTENSION));
+    }
+
+    // The newer file wins if both versions of a design are present
+    private File resolve(String baseName) {
+        File binary = new File(plugin.getDataFolder(), baseName + FloorFormat.EXTENSION);
+        File json = new File(plugin.getDataFolder(), baseName + FloorFormat.JSON_EXTENSION);
+        if (!binary.exists()) {
+            return json.exists() ? json : null;
+        }
+        if (json.exists() && json.lastModified() > binary.lastModified()) {
+            return json;
+        }
+        return binary;
+    }
+
+    private FloorLayout load(File file) {
+        if (file.getName().endsWith(FloorFormat.EXTENSION)) {
+            try {
+                return FloorLayout.fromDesignerCells(FloorFormat.read(file.toPath()));
+            } catch (IOException e) {
+                plugin.getLogger().severe("Error reading " + file.getName() + ": " + e.getMessage());
+                return null;
+            }
+        }
+        return loadJson(file);
+    }
+
+    // Stream the designer JSON into a grid and apply the 180-degree rotation,
+    // so the "top" from the file is at positive Z in game.
+    private FloorLayout loadJson(File file) {
+        try {
+            FloorLayoutParser.Result result = FloorLayoutParser.parse(file.toPath());
+            if (result.isValid()) {
+                plugin.getLogger().info("Loaded layout " + result.summary());
+            } else {
+                plugin.getLogger().warning("Loaded layout " + result.summary());
+            }
+            return FloorLayout.fromDesignerCells(result.getCells());
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error reading " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * FloorState is the plugin's in-memory copy of the dance floor: one byte per tile for the
+ * floor layer (y) and one for the layer above it (y + 1, beacons, snow, glass).
+ *
+ * Every block change made through the FloorWriter updates it, so the game can ask FloorState
+ * what is on the floor instead of calling World.getBlockAt(...).getType() for each tile.
+ * Materials outside CODES are stored as OTHER and read from the world when asked for.
+ *
+ * The floor layer is also indexed as one TileMask per code, with a tile count per code, so
+ * "a random tile of the safe color", "how many red tiles" and "every tile that is not the
+ * safe color" don't need a pass over all 4096 tiles.
+ *
+ * Nothing else should change these blocks, but verify() compares a few rows per call with the
+ * world (round-robin, so the whole floor is covered every SIZE / ROWS_PER_CHECK calls) and
+ * re-reads the rows whose checksum does not match.
+ * All methods must be called on the main thread.
+ */
+public class FloorState {
+
+    public static final int SIZE = FloorLayout.SIZE;
+
+    // Codes 0..15 are the palette indices, followed by the other blocks the game places
+    private static final Material[] CODES;
+    private static final byte OTHER = -1;
+    private static final byte[] CODE_BY_ORDINAL = new byte[Material.values().length];
+
+    static {
+        Material[] extra = {
+                Material.AIR, Material.BEACON, Material.SNOW, Material.GLASS, ClientFloorRenderer.NEUTRAL
+        };
+        CODES = Arrays.copyOf(FloorLayout.PALETTE, FloorLayout.PALETTE.length + extra.length);
+        System.arraycopy(extra, 0, CODES, FloorLayout.PALETTE.length, extra.length);
+        Arrays.fill(CODE_BY_ORDINAL, OTHER);
+        for (int i = 0; i < CODES.length; i++) {
+            CODE_BY_ORDINAL[CODES[i].ordinal()] = (byte) i;
+        }
+    }
+
+    private static final int ROWS_PER_CHECK = 4;
+
+    private static final byte AIR_CODE = CODE_BY_ORDINAL[Material.AIR.ordinal()];
+
+    private final int startX;
+    private final int startZ;
+    private final int floorY;
+
+    private World world;
+    // [0] = floor layer, [1] = layer above, index localX * SIZE + localZ
+    private final byte[][] layers = new byte[2][SIZE * SIZE];
+    private int nextCheckRow = 0;
+
+    // Floor layer only: masks[maskIndex(code)] has a bit for every tile with that code, counts the same
+    private final long[][] masks = new long[CODES.length + 1][TileMask.WORDS];
+    private final int[] counts = new int[CODES.length + 1];
+
+    public FloorState(int startX, int floorY, int startZ) {
+        this.startX = startX;
+        this.floorY = floorY;
+        this.startZ = startZ;
+        // Empty until the first capture()
+        Arrays.fill(layers[0], AIR_CODE);
+        Arrays.fill(layers[1], AIR_CODE);
+        Arrays.fill(masks[AIR_CODE], -1L);
+        counts[AIR_CODE] = SIZE * SIZE;
+    }
+
+    // True for the materials stored by code, everything else is OTHER
+    public static boolean tracks(Material material) {
+        return CODE_BY_ORDINAL[material.ordinal()] != OTHER;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartZ() {
+        return startZ;
+    }
+
+    public int getFloorY() {
+        return floorY;
+    }
+
+    // Reads both layers from the world, e.g. after the arena was rebuilt
+    public void capture(World w) {
+        world = w;
+        for (int xx = 0; xx < SIZE; xx++) {
+            captureRow(xx);
+        }
+    }
+
+    // The world was unloaded, nothing matches until the next capture()
+    public void release() {
+        world = null;
+    }
+
+    public boolean contains(World w, int x, int y, int z) {
+        return w != null && w.equals(world)
+                && (y == floorY || y == floorY + 1)
+                && x >= startX && x < startX + SIZE && z >= startZ && z < startZ + SIZE;
+    }
+
+    // True if the floor layer is the 64x64 square starting at (sx, y, sz) in w
+    public boolean covers(World w, int sx, int y, int sz) {
+        return w != null && w.equals(world) && sx == startX && y == floorY && sz == startZ;
+    }
+
+    // Called by the FloorWriter after it changed a block
+    public void update(World w, int x, int y, int z, Material material) {
+        if (!contains(w, x, y, z)) return;
+        setCode(y - floorY, (x - startX) * SIZE + (z - startZ), CODE_BY_ORDINAL[material.ordinal()]);
+    }
+
+    // Number of floor tiles of a material (0 for materials outside CODES)
+    public int getFloorCount(Material material) {
+        byte code = CODE_BY_ORDINAL[material.ordinal()];
+        return code == OTHER ? 0 : counts[code];
+    }
+
+    // Floor tiles of a material as a TileMask, a copy the caller may modify
+    public long[] getFloorMask(Material material) {
+        byte code = CODE_BY_ORDINAL[material.ordinal()];
+        return code == OTHER ? new long[TileMask.WORDS] : masks[code].clone();
+    }
+
+    // Floor tiles of every material except the given ones, e.g. (safe color, AIR) at the freeze
+    public long[] getFloorMaskExcept(Material... keep) {
+        long[] result = new long[TileMask.WORDS];
+        Arrays.fill(result, -1L);
+        for (Material material : keep) {
+            byte code = CODE_BY_ORDINAL[material.ordinal()];
+            if (code == OTHER) continue;
+            long[] mask = masks[code];
+            for (int w = 0; w < result.length; w++) {
+                result[w] &= ~mask[w];
+            }
+        }
+        return result;
+    }
+
+    // A random floor tile of a material as localX * SIZE + localZ, or -1 if there is none
+    public int randomFloorTile(Material material, RandomGenerator random) {
+        byte code = CODE_BY_ORDINAL[material.ordinal()];
+        if (code == OTHER) return -1;
+        return TileMask.pickRandom(masks[code], counts[code], random);
+    }
+
+    // Floor layer by local offset from the start corner
+    public Material getFloor(int localX, int localZ) {
+        return get(0, localX, localZ);
+    }
+
+    // Layer above the floor by local offset from the start corner
+    public Material getAbove(int localX, int localZ) {
+        return get(1, localX, localZ);
+    }
+
+    // World coordinates, y must be the floor layer or the one above (see contains)
+    public Material getType(int x, int y, int z) {
+        return get(y - floorY, x - startX, z - startZ);
+    }
+
+    private Material get(int layer, int localX, int localZ) {
+        byte code = layers[layer][localX * SIZE + localZ];
+        if (code == OTHER) {
+            return world.getBlockAt(startX + localX, floorY + layer, startZ + localZ).getType();
+        }
+        return CODES[code];
+    }
+
+    // Compares the next few rows with the world and re-reads them if they drifted.
+    // Returns the number of tiles that were wrong.
+    public int verify() {
+        if (world == null) return 0;
+        int wrong = 0;
+        for (int i = 0; i < ROWS_PER_CHECK; i++) {
+            int xx = nextCheckRow;
+            nextCheckRow = (nextCheckRow + 1) % SIZE;
+            if (rowChecksum(xx, false) != rowChecksum(xx, true)) {
+                wrong += captureRow(xx);
+            }
+        }
+        return wrong;
+    }
+
+    private long rowChecksum(int xx, boolean fromWorld) {
+        long hash = 17;
+        for (int layer = 0; layer < 2; layer++) {
+            for (int zz = 0; zz < SIZE; zz++) {
+                byte code = fromWorld
+                        ? CODE_BY_ORDINAL[world.getBlockAt(startX + xx, floorY + layer, startZ + zz).getType().ordinal()]
+                        : layers[layer][xx * SIZE + zz];
+                hash = hash * 31 + code;
+            }
+        }
+        return hash;
+    }
+
+    private void setCode(int layer, int index, byte code) {
+        byte old = layers[layer][index];
+        if (old == code) return;
+        layers[layer][index] = code;
+        if (layer == 0) {
+            long bit = 1L << (index & 63);
+            masks[maskIndex(old)][index >>> 6] &= ~bit;
+            counts[maskIndex(old)]--;
+            masks[maskIndex(code)][index >>> 6] |= bit;
+            counts[maskIndex(code)]++;
+        }
+    }
+
+    private static int maskIndex(byte code) {
+        return code == OTHER ? CODES.length : code;
+    }
+
+    // Returns the number of tiles that changed
+    private int captureRow(int xx) {
+        int changed = 0;
+        for (int layer = 0; layer < 2; layer++) {
+            for (int zz = 0; zz < SIZE; zz++) {
+                byte code = CODE_BY_ORDINAL[world.getBlockAt(startX + xx, floorY + layer, startZ + zz).getType().ordinal()];
+                int index = xx * SIZE + zz;
+                if (layers[layer][index] != code) {
+                    setCode(layer, index, code);
+                    changed++;
+                }
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.colorpartyplugin;
+
+import java.util.function.Function;
+import java.util.random.RandomGenerator;
+
+/**
+ * FloorVariation is one dance floor design that can be picked for a round.
+ * Variations are registered with the FloorVariationRegistry; the built-in ones come from
+ * BuildVariations, extra floor_* files in the data folder are added by the FloorLibrary,
+ * and other plugins can register their own through ColorPartyPlugin.getFloorVariations().
+ *
+ * generate() runs on a worker thread and must not touch the world, it only returns a FloorLayout.
+ */
+public interface FloorVariation {
+
+    // Rough cost of generate(), the registry avoids picking two EXPENSIVE variations in a row
+    enum Cost {
+        CHEAP,
+        MODERATE,
+        EXPENSIVE
+    }
+
+    // Unique id, e.g. "circles" or "floor_hearts"
+    String getId();
+
+    // Relative chance of being picked, 0 disables the variation
+    int getWeight();
+
+    Cost getCost();
+
+    // True if the layout comes from a design file instead of being generated
+    boolean isFileBacked();
+
+    FloorLayout generate(RandomGenerator random);
+
+    // A variation computed by a generator function
+    static FloorVariation procedural(String id, int weight, Cost cost, Function<RandomGenerator, FloorLayout> generator) {
+        return new Simple(id, weight, cost, false, generator);
+    }
+
+    // A variation read from the FloorLibrary, a missing design falls back to a light gray floor
+    static FloorVariation fromFile(String floorName, int weight) {
+        return new Simple(floorName, weight, Cost.CHEAP, true, random -> BuildVariations.buildVariationFromFile(floorName));
+    }
+
+    record Simple(String id, int weight, Cost cost, boolean fileBacked,
+                  Function<RandomGenerator, FloorLayout> generator) implements FloorVariation {
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public int getWeight() {
+            return weight;
+        }
+
+        @Override
+        public Cost getCost() {
+            return cost;
+        }
+
+        @Override
+        public boolean isFileBacked() {
+            return fileBacked;
+        }
+
+        @Override
+        public FloorLayout generate(RandomGenerator random) {
+            return generator.apply(random);
+        }
+    }
+}
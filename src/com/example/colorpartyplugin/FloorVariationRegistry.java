@@ -0,0 +1,190 @@
+package com.example.colorpartyplugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * FloorVariationRegistry holds every FloorVariation that can be picked for a round and
+ * chooses the next one by weight.
+ *
+ * A variation that was picked within the last NO_REPEAT_WINDOW rounds is skipped. The window
+ * is a ring buffer of slot numbers plus a bitmask over all slots, so checking and updating it
+ * is O(1) per variation. Two EXPENSIVE variations are never picked back to back unless nothing
+ * else is available. The window belongs to one game (a History, reset when the game starts),
+ * so the floors of a seed don't depend on what other games or arenas picked before.
+ *
+ * All methods are synchronized: rounds pick on the main thread, the FloorLibrary watcher
+ * registers extra floors from its own thread.
+ */
+public class FloorVariationRegistry {
+
+    // A variation can't come back within this many rounds
+    public static final int NO_REPEAT_WINDOW = 12;
+
+    // Weight of the built-in variations, lower it to make a variation rarer
+    public static final int DEFAULT_WEIGHT = 10;
+
+    // Slot numbers never change once assigned, removed variations leave a null behind
+    private final List<FloorVariation> slots = new ArrayList<>();
+    private final Map<String, Integer> slotById = new HashMap<>();
+
+    // Ids registered through setExtraFloors(), so they can be removed again when the file goes away
+    private final Set<String> extraFloors = new HashSet<>();
+
+    // Adds a variation, replacing any variation with the same id
+    public synchronized void register(FloorVariation variation) {
+        Integer slot = slotById.get(variation.getId());
+        if (slot != null) {
+            slots.set(slot, variation);
+            return;
+        }
+        slotById.put(variation.getId(), slots.size());
+        slots.add(variation);
+    }
+
+    public synchronized boolean unregister(String id) {
+        Integer slot = slotById.get(id);
+        if (slot == null || slots.get(slot) == null) return false;
+        slots.set(slot, null);
+        extraFloors.remove(id);
+        return true;
+    }
+
+    public synchronized FloorVariation get(String id) {
+        Integer slot = slotById.get(id);
+        return slot == null ? null : slots.get(slot);
+    }
+
+    public synchronized List<FloorVariation> getVariations() {
+        List<FloorVariation> list = new ArrayList<>();
+        for (FloorVariation variation : slots) {
+            if (variation != null) {
+                list.add(variation);
+            }
+        }
+        return list;
+    }
+
+    // Called by the FloorLibrary with the floor_* designs that are not built in
+    public synchronized void setExtraFloors(Collection<String> floorNames) {
+        for (String id : new ArrayList<>(extraFloors)) {
+            if (!floorNames.contains(id)) {
+                unregister(id);
+            }
+        }
+        for (String name : floorNames) {
+            if (extraFloors.add(name)) {
+                register(FloorVariation.fromFile(name, DEFAULT_WEIGHT));
+            }
+        }
+    }
+
+    // Picks the variation for the next round of a game and remembers it in the game's history,
+    // or returns null if nothing is registered
+    public synchronized FloorVariation pick(RandomGenerator random, History history) {
+        int slot = pickSlot(random, history, true, true);
+        if (slot < 0) {
+            // Only expensive variations are left outside the window
+            slot = pickSlot(random, history, true, false);
+        }
+        if (slot < 0) {
+            // Fewer variations than the window, allow repeats
+            slot = pickSlot(random, history, false, false);
+        }
+        if (slot < 0) return null;
+
+        FloorVariation variation = slots.get(slot);
+        history.remember(slot, variation.getCost() == FloorVariation.Cost.EXPENSIVE);
+        return variation;
+    }
+
+    // Weighted pick over the slots that pass the filters, -1 if none do
+    private int pickSlot(RandomGenerator random, History history, boolean skipRecent, boolean skipExpensive) {
+        boolean noExpensive = skipExpensive && history.lastWasExpensive;
+        int totalWeight = 0;
+        for (int slot = 0; slot < slots.size(); slot++) {
+            if (eligible(slot, history, skipRecent, noExpensive)) {
+                totalWeight += slots.get(slot).getWeight();
+            }
+        }
+        if (totalWeight <= 0) return -1;
+
+        int target = random.nextInt(totalWeight);
+        for (int slot = 0; slot < slots.size(); slot++) {
+            if (eligible(slot, history, skipRecent, noExpensive)) {
+                target -= slots.get(slot).getWeight();
+                if (target < 0) {
+                    return slot;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private boolean eligible(int slot, History history, boolean skipRecent, boolean noExpensive) {
+        FloorVariation variation = slots.get(slot);
+        if (variation == null || variation.getWeight() <= 0) return false;
+        if (skipRecent && history.isRecent(slot)) return false;
+        return !(noExpensive && variation.getCost() == FloorVariation.Cost.EXPENSIVE);
+    }
+
+    /**
+     * The no-repeat window of one game: the slots picked in its last NO_REPEAT_WINDOW rounds and
+     * whether the last one was EXPENSIVE. Each arena keeps one and clears it when a game starts.
+     * Only used by one thread at a time.
+     */
+    public static final class History {
+        // Ring buffer of recently picked slots (-1 = empty), and one bit per slot that is in it
+        private final int[] window = new int[NO_REPEAT_WINDOW];
+        private int windowPos = 0;
+        private long[] recentMask = new long[1];
+        private boolean lastWasExpensive = false;
+
+        public History() {
+            Arrays.fill(window, -1);
+        }
+
+        // Forget every pick, e.g. when a new game starts
+        public void clear() {
+            Arrays.fill(window, -1);
+            windowPos = 0;
+            Arrays.fill(recentMask, 0L);
+            lastWasExpensive = false;
+        }
+
+        private boolean isRecent(int slot) {
+            int word = slot >>> 6;
+            return word < recentMask.length && (recentMask[word] & (1L << (slot & 63))) != 0;
+        }
+
+        // Push a slot into the ring buffer, dropping the oldest entry
+        private void remember(int slot, boolean expensive) {
+            if (slot >>> 6 >= recentMask.length) {
+                recentMask = Arrays.copyOf(recentMask, Math.max(recentMask.length * 2, (slot >>> 6) + 1));
+            }
+            int evicted = window[windowPos];
+            window[windowPos] = slot;
+            windowPos = (windowPos + 1) % NO_REPEAT_WINDOW;
+            if (evicted >= 0 && evicted != slot && !inWindow(evicted)) {
+                recentMask[evicted >>> 6] &= ~(1L << (evicted & 63));
+            }
+            recentMask[slot >>> 6] |= 1L << (slot & 63);
+            lastWasExpensive = expensive;
+        }
+
+        // Only needed when a repeat was allowed and a slot is in the window twice
+        private boolean inWindow(int slot) {
+            for (int s : window) {
+                if (s == slot) return true;
+            }
+            return false;
+        }
+    }
+}
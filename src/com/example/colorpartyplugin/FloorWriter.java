@@ -0,0 +1,491 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * FloorWriter is the one place that changes blocks in the arena.
+ *
+ * - Every write uses a cached BlockData per Material and setBlockData(data, false), so no
+ *   physics or neighbour updates run (terracotta, snow layers, beacons and glass don't need them).
+ * - Blocks that already have the target material are skipped.
+ * - Batches are grouped by chunk section before writing, so consecutive writes hit the same section.
+ * - At most blocksPerTick blocks are written per server tick ("floor-writer.blocks-per-tick" in
+ *   config.yml). A batch that does not fit is finished on the next ticks, in submission order.
+ *
+ * submit() returns a future that completes on the main thread with the number of blocks changed,
+ * once the whole batch is written. Single blocks go through set(), which writes immediately.
+ * Writes inside a FloorState region keep it up to date, and getType() answers from it, so
+ * the game can check the floor without reading the world.
+ *
+ * Writes that are queued for a later tick count as done: getType() returns the material a
+ * queued batch will write, so a diff made in the meantime (the next floor, the freeze) is made
+ * against what the floor will be, not what it is this tick. The last write to a position wins,
+ * in the order set() and submit() were called: a queued write that was overtaken by a later
+ * set() or a later batch is skipped when its turn comes. Every change is also reported to the
+ * DirtyRegions, so a reset can put back only what was changed. Other bulk writes (the arena
+ * snapshot paste) run as a Job on the same ticks and share the budget. Each arena adds its own
+ * FloorState and DirtyRegion, the writer and its per-tick budget are shared by all arenas.
+ * All methods must be called on the main thread.
+ */
+public class FloorWriter {
+
+    public static final int DEFAULT_BLOCKS_PER_TICK = 2048;
+
+    private final ColorPartyPlugin plugin;
+    private final int blocksPerTick;
+    private final Map<Material, BlockData> blockData = new EnumMap<>(Material.class);
+
+    private final ArrayDeque<Batch> queue = new ArrayDeque<>();
+    // Jobs get what the batches leave of a tick's budget
+    private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+    private BukkitTask task;
+
+    // The last queued write of every position that is still waiting, per world
+    private final Map<World, Map<Long, Pending>> pending = new HashMap<>();
+
+    // Shadow copies of the dance floors, one per arena
+    private final List<FloorState> floorStates = new ArrayList<>();
+    // The FloorState of the last lookup, writes usually come in runs on the same floor
+    private FloorState lastState;
+
+    // Record changed blocks for the next arena reset, one per arena
+    private final List<DirtyRegion> dirtyRegions = new ArrayList<>();
+
+    public FloorWriter(ColorPartyPlugin plugin, int blocksPerTick) {
+        this.plugin = plugin;
+        this.blocksPerTick = Math.max(1, blocksPerTick);
+    }
+
+    public int getBlocksPerTick() {
+        return blocksPerTick;
+    }
+
+    // Number of blocks waiting for a later tick
+    public int getPendingWrites() {
+        int pending = 0;
+        for (Batch batch : queue) {
+            pending += batch.remaining();
+        }
+        return pending;
+    }
+
+    // True if a queued batch still has to write somewhere in world
+    public boolean hasPendingWrites(World world) {
+        return pending.containsKey(world);
+    }
+
+    public void addFloorState(FloorState floorState) {
+        floorStates.add(floorState);
+    }
+
+    public void addDirtyRegion(DirtyRegion dirtyRegion) {
+        dirtyRegions.add(dirtyRegion);
+    }
+
+    // The FloorState that covers a position, or null
+    private FloorState stateAt(World world, int x, int y, int z) {
+        if (lastState != null && lastState.contains(world, x, y, z)) {
+            return lastState;
+        }
+        for (FloorState state : floorStates) {
+            if (state.contains(world, x, y, z)) {
+                lastState = state;
+                return state;
+            }
+        }
+        return null;
+    }
+
+    // The material at a position once the queued batches are written,
+    // from a FloorState if one covers the position
+    public Material getType(World world, int x, int y, int z) {
+        Pending queued = pendingAt(world, x, y, z);
+        if (queued != null) {
+            return queued.material();
+        }
+        FloorState state = stateAt(world, x, y, z);
+        if (state != null) {
+            return state.getType(x, y, z);
+        }
+        return world.getBlockAt(x, y, z).getType();
+    }
+
+    public Material getType(Block block) {
+        return getType(block.getWorld(), block.getX(), block.getY(), block.getZ());
+    }
+
+    public BlockData getBlockData(Material material) {
+        return blockData.computeIfAbsent(material, Material::createBlockData);
+    }
+
+    // Writes one block right away. Returns false if it already had that material.
+    public boolean set(Block block, Material material) {
+        return set(block.getWorld(), block, block.getX(), block.getY(), block.getZ(), material);
+    }
+
+    public boolean set(World world, int x, int y, int z, Material material) {
+        return set(world, null, x, y, z, material);
+    }
+
+    private boolean set(World world, Block block, int x, int y, int z, Material material) {
+        // Written now, so a queued write to the same position is out of date
+        if (!pending.isEmpty()) {
+            Map<Long, Pending> inWorld = pending.get(world);
+            if (inWorld != null && inWorld.remove(key(x, y, z)) != null && inWorld.isEmpty()) {
+                pending.remove(world);
+            }
+        }
+        return write(world, block, x, y, z, material, null);
+    }
+
+    // data is the exact state to write (e.g. a LIGHT level put back by a reset), null for the
+    // material's default. Blocks written with a state are compared by state, not by material.
+    private boolean write(World world, Block block, int x, int y, int z, Material material, BlockData data) {
+        FloorState state = stateAt(world, x, y, z);
+        Material old = state != null ? state.getType(x, y, z) : null;
+        if (old == material && data == null) return false;
+        if (block == null) {
+            block = world.getBlockAt(x, y, z);
+        }
+        if (data != null) {
+            if (data.equals(block.getBlockData())) return false;
+            old = block.getType();
+        } else if (state == null) {
+            old = block.getType();
+            if (old == material) return false;
+        }
+        for (DirtyRegion dirtyRegion : dirtyRegions) {
+            dirtyRegion.mark(world, x, y, z, old, block);
+        }
+        block.setBlockData(data != null ? data : getBlockData(material), false);
+        if (state != null) {
+            state.update(world, x, y, z, material);
+        }
+        return true;
+    }
+
+    public Batch batch(World world) {
+        return new Batch(world);
+    }
+
+    // Writes the batch now if nothing is queued and it fits in one tick, otherwise queues it
+    private CompletableFuture<Integer> submit(Batch batch) {
+        if (queue.isEmpty() && batch.size <= blocksPerTick) {
+            batch.write(Integer.MAX_VALUE);
+            batch.future.complete(batch.changed);
+            return batch.future;
+        }
+        queue.add(batch);
+        batch.markPending();
+        startTask();
+        return batch.future;
+    }
+
+    // Runs the job on the writer's ticks until it is done, after the batches queued before it
+    public void run(Job job) {
+        jobs.add(job);
+        startTask();
+    }
+
+    private void startTask() {
+        if (task == null) {
+            // Start on this tick, then once per tick until the queue is empty
+            task = Bukkit.getScheduler().runTaskTimer(plugin, plugin.getProfiler().wrap("floor-writer", this::tick), 0L, 1L);
+        }
+    }
+
+    private void stopTaskIfIdle() {
+        if (queue.isEmpty() && jobs.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void tick() {
+        int budget = blocksPerTick;
+        while (budget > 0 && !queue.isEmpty()) {
+            Batch batch = queue.peek();
+            budget -= batch.write(budget);
+            if (batch.remaining() == 0) {
+                queue.poll();
+                batch.future.complete(batch.changed);
+            }
+        }
+        while (budget > 0 && !jobs.isEmpty()) {
+            Job job = jobs.peek();
+            budget -= Math.max(1, job.write(budget));
+            if (job.isDone()) {
+                jobs.poll();
+            }
+        }
+        stopTaskIfIdle();
+    }
+
+    // Drops the queued batches that write anywhere in minX..maxX, minZ..maxZ of world,
+    // e.g. when one arena is reset while the others keep playing
+    public void cancelIn(World world, int minX, int minZ, int maxX, int maxZ) {
+        Iterator<Batch> it = queue.iterator();
+        while (it.hasNext()) {
+            Batch batch = it.next();
+            if (batch.touches(world, minX, minZ, maxX, maxZ)) {
+                batch.future.cancel(false);
+                batch.clearPending();
+                it.remove();
+            }
+        }
+        stopTaskIfIdle();
+    }
+
+    // Drops everything that is still queued, e.g. when the plugin is disabled
+    public void cancelAll() {
+        for (Batch batch : queue) {
+            batch.future.cancel(false);
+        }
+        queue.clear();
+        pending.clear();
+        for (Job job : jobs) {
+            job.cancel();
+        }
+        jobs.clear();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Bulk work that writes blocks itself on the writer's ticks, e.g. the arena snapshot paste.
+     * It is given what the batches leave of each tick's budget.
+     */
+    public interface Job {
+        // Does up to budget units of work, returns how many it used
+        int write(int budget);
+
+        boolean isDone();
+
+        // Called instead of the remaining writes, e.g. when the plugin is disabled
+        void cancel();
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+
+    private Pending pendingAt(World world, int x, int y, int z) {
+        if (pending.isEmpty()) return null;
+        Map<Long, Pending> inWorld = pending.get(world);
+        return inWorld != null ? inWorld.get(key(x, y, z)) : null;
+    }
+
+    // The queued write that decides a position: the batch it is in and what it writes
+    private record Pending(Batch batch, Material material, BlockData data) {
+    }
+
+    /**
+     * A set of block writes in one world. Writes are collected per 16x16x16 chunk section
+     * and written section by section. Adding the same position twice keeps both writes,
+     * the later one wins.
+     */
+    public final class Batch {
+        private final World world;
+        private final Map<Long, Section> sections = new LinkedHashMap<>();
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+        private int size;
+        private int changed;
+
+        // Write cursor, set up by submit()
+        private List<Section> order;
+        private int sectionIndex;
+        private int entryIndex;
+
+        private Batch(World world) {
+            this.world = world;
+        }
+
+        public Batch add(int x, int y, int z, Material material) {
+            return add(x, y, z, material, null);
+        }
+
+        // Writes exactly this block state, e.g. a block with a LIGHT level or facing
+        public Batch add(int x, int y, int z, BlockData data) {
+            return add(x, y, z, data.getMaterial(), data);
+        }
+
+        private Batch add(int x, int y, int z, Material material, BlockData data) {
+            if (order != null) {
+                throw new IllegalStateException("Batch was already submitted");
+            }
+            long key = ((long) (x >> 4) & 0x3FFFFF) << 42 | ((long) (z >> 4) & 0x3FFFFF) << 20 | ((y >> 4) & 0xFFFFF);
+            Section section = sections.get(key);
+            if (section == null) {
+                section = new Section(x >> 4, y >> 4, z >> 4);
+                sections.put(key, section);
+            }
+            section.add((y & 15) << 8 | (z & 15) << 4 | (x & 15), material, data);
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public CompletableFuture<Integer> submit() {
+            if (order != null) {
+                throw new IllegalStateException("Batch was already submitted");
+            }
+            order = new ArrayList<>(sections.values());
+            return FloorWriter.this.submit(this);
+        }
+
+        // True if any of the batch's chunk sections overlaps the x/z area
+        private boolean touches(World w, int minX, int minZ, int maxX, int maxZ) {
+            if (!world.equals(w)) return false;
+            for (Section section : sections.values()) {
+                int x = section.cx << 4;
+                int z = section.cz << 4;
+                if (x + 15 >= minX && x <= maxX && z + 15 >= minZ && z <= maxZ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int remaining() {
+            int done = 0;
+            if (order != null) {
+                for (int i = 0; i < sectionIndex; i++) {
+                    done += order.get(i).size;
+                }
+                done += entryIndex;
+            }
+            return size - done;
+        }
+
+        // Writes up to max blocks, returns how many positions were processed
+        private int write(int max) {
+            // Null if the batch was written right away and never queued
+            Map<Long, Pending> queued = pending.get(world);
+            int processed = 0;
+            while (processed < max && sectionIndex < order.size()) {
+                Section section = order.get(sectionIndex);
+                int baseX = section.cx << 4;
+                int baseY = section.cy << 4;
+                int baseZ = section.cz << 4;
+                while (processed < max && entryIndex < section.size) {
+                    int local = section.positions[entryIndex];
+                    int x = baseX + (local & 15);
+                    int y = baseY + (local >> 8);
+                    int z = baseZ + (local >> 4 & 15);
+                    if (queued == null) {
+                        if (FloorWriter.this.write(world, null, x, y, z, section.materials[entryIndex],
+                                section.data(entryIndex))) {
+                            changed++;
+                        }
+                    } else {
+                        // Only the position's last write is made, the first time one of its entries comes up
+                        Long key = key(x, y, z);
+                        Pending last = queued.get(key);
+                        if (last != null && last.batch() == this) {
+                            queued.remove(key);
+                            if (FloorWriter.this.write(world, null, x, y, z, last.material(), last.data())) {
+                                changed++;
+                            }
+                        }
+                    }
+                    entryIndex++;
+                    processed++;
+                }
+                if (entryIndex >= section.size) {
+                    sectionIndex++;
+                    entryIndex = 0;
+                }
+            }
+            if (queued != null && queued.isEmpty()) {
+                pending.remove(world);
+            }
+            return processed;
+        }
+
+        // Makes this batch the last write of each of its positions, in entry order
+        private void markPending() {
+            Map<Long, Pending> queued = pending.computeIfAbsent(world, w -> new HashMap<>());
+            for (Section section : order) {
+                int baseX = section.cx << 4;
+                int baseY = section.cy << 4;
+                int baseZ = section.cz << 4;
+                for (int i = 0; i < section.size; i++) {
+                    int local = section.positions[i];
+                    queued.put(key(baseX + (local & 15), baseY + (local >> 8), baseZ + (local >> 4 & 15)),
+                            new Pending(this, section.materials[i], section.data(i)));
+                }
+            }
+        }
+
+        // Forgets the positions whose last write is in this batch, e.g. when it is cancelled
+        private void clearPending() {
+            Map<Long, Pending> queued = pending.get(world);
+            if (queued == null) return;
+            queued.values().removeIf(last -> last.batch() == this);
+            if (queued.isEmpty()) {
+                pending.remove(world);
+            }
+        }
+    }
+
+    private static final class Section {
+        final int cx;
+        final int cy;
+        final int cz;
+        short[] positions = new short[64];
+        Material[] materials = new Material[64];
+        // Only allocated once an entry has a block state of its own
+        BlockData[] data;
+        int size;
+
+        Section(int cx, int cy, int cz) {
+            this.cx = cx;
+            this.cy = cy;
+            this.cz = cz;
+        }
+
+        void add(int local, Material material, BlockData state) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                materials = Arrays.copyOf(materials, size * 2);
+                if (data != null) {
+                    data = Arrays.copyOf(data, size * 2);
+                }
+            }
+            if (state != null && data == null) {
+                data = new BlockData[positions.length];
+            }
+            positions[size] = (short) local;
+            materials[size] = material;
+            if (data != null) {
+                data[size] = state;
+            }
+            size++;
+        }
+
+        BlockData data(int index) {
+            return data != null ? data[index] : null;
+        }
+    }
+}
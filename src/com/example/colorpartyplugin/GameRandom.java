@@ -0,0 +1,87 @@
+package com.example.colorpartyplugin;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * GameRandom is all the randomness of one game, derived from a single seed.
+ *
+ * The seed is split into an independent SplittableRandom per subsystem, so each stream only
+ * depends on the seed and on how often its own subsystem drew from it: the floors of a game
+ * are the same whether or not someone picked up a powerup in between. The arena logs the seed
+ * when a game starts, and "/cp seed" starts its next game with a given one to replay it (with
+ * the same player moves). The variation repeat window is kept per game, see
+ * FloorVariationRegistry.History, so other games and arenas don't change the floors of a seed.
+ *
+ * SplittableRandom is not thread-safe, but nothing here is shared: every stream is used by one
+ * thread at a time (the floor streams are handed to the floor worker, see RoundRules.prepareNextFloor()
+ * and generateFloor()).
+ */
+public class GameRandom {
+
+    private final long seed;
+
+    // Split in this order from the seed. New streams go at the end, so older seeds still replay.
+    private final SplittableRandom floors;
+    private final SplittableRandom safeColor;
+    private final SplittableRandom beacons;
+    private final SplittableRandom powerups;
+    private final SplittableRandom effects;
+    private final SplittableRandom spawns;
+    private final SplittableRandom music;
+
+    public GameRandom(long seed) {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(seed);
+        floors = root.split();
+        safeColor = root.split();
+        beacons = root.split();
+        powerups = root.split();
+        effects = root.split();
+        spawns = root.split();
+        music = root.split();
+    }
+
+    // A seed for a game nobody asked to replay
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // Variation pick and floor generation
+    public SplittableRandom floors() {
+        return floors;
+    }
+
+    // The safe color of each round
+    public SplittableRandom safeColor() {
+        return safeColor;
+    }
+
+    // Whether beacons spawn, where, and which powerup they hold
+    public SplittableRandom beacons() {
+        return beacons;
+    }
+
+    // Everything a powerup does once it is used
+    public SplittableRandom powerups() {
+        return powerups;
+    }
+
+    // Crazy mode effects
+    public SplittableRandom effects() {
+        return effects;
+    }
+
+    // Where players are put on the floor and as observers
+    public SplittableRandom spawns() {
+        return spawns;
+    }
+
+    public SplittableRandom music() {
+        return music;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * MatchmakingQueue sits between the NPC and the arena pool ("matchmaking" in config.yml).
+ *
+ * Players who talk to the NPC are sent to the arena that is currently filling up ("forming"),
+ * the next idle and freshly reset arena of the pool. Its game starts on its own once
+ * target-players have joined, or fill-timeout-seconds after the first player if at least
+ * min-players are there (the Start items still start it early). Then the next idle arena
+ * starts forming.
+ *
+ * When a game ends (RoundEngine ENDED, see the TransitionHook) its players are shown the
+ * winners for return-delay-seconds and then queued again, which empties the arena and starts
+ * its reset in the background while the players are already in the next forming arena.
+ * If no arena is ready, players wait in the main world and are pulled in as soon as one is;
+ * with "arenas.own-worlds" another arena world is loaded for them (ArenaManager.ensureSpareArena()).
+ * All methods must be called on the main thread.
+ */
+public class MatchmakingQueue {
+
+    private final ColorPartyPlugin plugin;
+    private final int targetPlayers;
+    private final int minPlayers;
+    private final int fillTimeoutSeconds;
+    private final int returnDelaySeconds;
+
+    // Players waiting for an arena, in join order. They are in the main world with their own inventory.
+    private final Set<UUID> waiting = new LinkedHashSet<>();
+
+    // The arena players are currently sent to, null if no arena is idle
+    private Arena forming;
+    // Seconds since the first player joined the forming arena
+    private int formingSeconds;
+
+    private BukkitTask task;
+
+    public MatchmakingQueue(ColorPartyPlugin plugin, int targetPlayers, int minPlayers,
+                            int fillTimeoutSeconds, int returnDelaySeconds) {
+        this.plugin = plugin;
+        this.targetPlayers = Math.max(1, targetPlayers);
+        this.minPlayers = Math.max(1, Math.min(minPlayers, this.targetPlayers));
+        this.fillTimeoutSeconds = Math.max(0, fillTimeoutSeconds);
+        this.returnDelaySeconds = Math.max(0, returnDelaySeconds);
+    }
+
+    // Starts the once-per-second fill check and listens for finished games
+    public void start() {
+        for (Arena arena : plugin.getArenaManager().getArenas()) {
+            arena.getRoundEngine().addHook((from, to, tick) -> {
+                if (to == RoundEngine.Phase.ENDED) {
+                    onGameEnded(arena);
+                }
+            });
+        }
+        task = Bukkit.getScheduler().runTaskTimer(plugin, plugin.getProfiler().wrap("matchmaking", this::tick), 20L, 20L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    public boolean isWaiting(UUID playerId) {
+        return waiting.contains(playerId);
+    }
+
+    // A player talked to the NPC: into the forming arena, or into the queue if there is none
+    public void join(Player player) {
+        if (plugin.getArenaManager().getArena(player) != null) return;
+        if (waiting.contains(player.getUniqueId())) {
+            player.sendMessage(ChatColor.YELLOW + "You are already queued for Color Party (position "
+                    + position(player.getUniqueId()) + ").");
+            return;
+        }
+        Arena arena = formingArena();
+        if (arena == null) {
+            waiting.add(player.getUniqueId());
+            plugin.getArenaManager().ensureSpareArena();
+            player.sendMessage(ChatColor.YELLOW + "No Color Party arena is free yet, you are number "
+                    + waiting.size() + " in the queue.");
+            return;
+        }
+        plugin.storeAndClearInventory(player);
+        enter(player, arena);
+    }
+
+    // The player left the server or the queue
+    public void leave(Player player) {
+        waiting.remove(player.getUniqueId());
+    }
+
+    private int position(UUID playerId) {
+        int i = 1;
+        for (UUID id : waiting) {
+            if (id.equals(playerId)) return i;
+            i++;
+        }
+        return -1;
+    }
+
+    private void enter(Player player, Arena arena) {
+        if (forming == arena && arena.getPlayerCount() == 0) {
+            formingSeconds = 0;
+        }
+        arena.addPlayer(player);
+        ColorPartyNPCListener.sendToPreGameArea(player, arena);
+        int count = arena.getPlayerCount();
+        for (Player p : arena.getOnlinePlayers()) {
+            p.sendMessage(ChatColor.GRAY + player.getName() + " joined (" + count + "/" + targetPlayers + ").");
+        }
+        if (count >= targetPlayers) {
+            startForming();
+        }
+    }
+
+    // The forming arena, or the next idle one. Null if every arena is busy or resetting.
+    private Arena formingArena() {
+        if (forming != null && (forming.isGameInProgress() || forming.isGameEnded()
+                || forming.getPlayerCount() >= targetPlayers
+                || (forming.getPlayerCount() == 0 && !forming.isReady()))) {
+            // Started (by us or a Start item), full, or emptied and now resetting
+            forming = null;
+        }
+        if (forming == null) {
+            forming = plugin.getArenaManager().findIdleArena();
+            formingSeconds = 0;
+        }
+        return forming;
+    }
+
+    private void startForming() {
+        Arena arena = forming;
+        forming = null;
+        if (arena != null && arena.start(false)) {
+            plugin.getLogger().info("Matchmaking started a game in arena " + arena.getId() + " with "
+                    + arena.getPlayerCount() + " player(s).");
+        }
+    }
+
+    private void tick() {
+        // Waiting players first, they queued before anyone who talks to the NPC now
+        Iterator<UUID> it = waiting.iterator();
+        while (it.hasNext()) {
+            Player player = Bukkit.getPlayer(it.next());
+            if (player == null) {
+                it.remove();
+                continue;
+            }
+            Arena arena = formingArena();
+            if (arena == null) {
+                plugin.getArenaManager().ensureSpareArena();
+                break;
+            }
+            it.remove();
+            plugin.storeAndClearInventory(player);
+            enter(player, arena);
+        }
+
+        Arena arena = formingArena();
+        if (arena == null || arena.getPlayerCount() == 0) return;
+        formingSeconds++;
+        int count = arena.getPlayerCount();
+        if (formingSeconds >= fillTimeoutSeconds && count >= minPlayers) {
+            startForming();
+        } else if (formingSeconds < fillTimeoutSeconds && (fillTimeoutSeconds - formingSeconds) % 10 == 0) {
+            for (Player p : arena.getOnlinePlayers()) {
+                p.sendMessage(ChatColor.GRAY + "Game starts in " + (fillTimeoutSeconds - formingSeconds) + "s ("
+                        + count + "/" + targetPlayers + " players, " + minPlayers + " needed).");
+            }
+        } else if (formingSeconds >= fillTimeoutSeconds && (formingSeconds - fillTimeoutSeconds) % 10 == 0) {
+            // Past the timeout with too few players, the game starts as soon as enough have joined
+            for (Player p : arena.getOnlinePlayers()) {
+                p.sendMessage(ChatColor.GRAY + "Waiting for " + (minPlayers - count) + " more player(s) to start ("
+                        + count + "/" + targetPlayers + " players, " + minPlayers + " needed).");
+            }
+        }
+    }
+
+    // Shows the winners for a moment, then queues the players again so the arena can reset
+    private void onGameEnded(Arena arena) {
+        Bukkit.getScheduler().runTaskLater(plugin, plugin.getProfiler().wrap("matchmaking.return", () -> {
+            // Everyone may have exited in the meantime, which already reset the arena
+            if (!arena.isGameEnded()) return;
+            List<Player> players = new ArrayList<>(arena.getOnlinePlayers());
+            for (Player player : players) {
+                // The last one out starts the arena's reset
+                arena.removePlayer(player);
+                requeue(player);
+            }
+        }), returnDelaySeconds * 20L);
+    }
+
+    private void requeue(Player player) {
+        player.setGameMode(GameMode.SURVIVAL);
+        player.setAllowFlight(false);
+        player.setFlying(false);
+        player.setInvulnerable(false);
+        player.setFallDistance(0f);
+        player.setWalkSpeed(0.2f);
+        player.setFoodLevel(20);
+        Arena next = formingArena();
+        if (next != null) {
+            // Main-world inventory is still stored, only the game items are replaced
+            plugin.giveLobbyItems(player);
+            enter(player, next);
+            return;
+        }
+        // Nothing free: wait in the main world like everyone else in the queue
+        World mainWorld = Bukkit.getWorld("world");
+        if (mainWorld != null) {
+            player.teleport(new Location(mainWorld, 59.5, 66, -393.5));
+        }
+        plugin.restoreInventory(player);
+        waiting.add(player.getUniqueId());
+        plugin.getArenaManager().ensureSpareArena();
+        player.sendMessage(ChatColor.YELLOW + "No Color Party arena is free yet, you are number "
+                + waiting.size() + " in the queue.");
+    }
+}
@@ -17,10 +17,11 @@ import org.bukkit.util.Vector;
 
 import java.util.Map;
 import java.util.HashMap;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.random.RandomGenerator;
 
 /**
  * PowerupManager is a separate class for awarding and handling powerup logic.
@@ -29,9 +30,10 @@ import java.util.UUID;
  */
 public class PowerupManager {
 
-    // Store references to the plugin, random, and "playersWithColorTrail" structure
+    // Store references to the plugin and "playersWithColorTrail" structure
     private final ColorPartyPlugin plugin;
-    private final Random random;
+    // The current game's powerup stream, see GameRandom
+    private RandomGenerator random = new SplittableRandom();
     private final Set<UUID> playersWithColorTrail;
 
     // A set of players currently starved
@@ -41,18 +43,27 @@ public class PowerupManager {
     private final Set<UUID> carpetPlayers = new HashSet<>();
     private final Map<UUID, BukkitRunnable> carpetTasks = new HashMap<>();
 
-    // Dance floor bounds
-    // Used by magic carpet function
+    // Dance floor bounds of the arena this manager belongs to
+    // Used by magic carpet and random teleport
     private static final int FLOOR_SIZE = 64;
-    private static final int FLOOR_START_X = -FLOOR_SIZE / 2; // -32
-    private static final int FLOOR_START_Z = -FLOOR_SIZE / 2; // -32
     private static final int FLOOR_Y = 120;
-
-    // Constructor: pass in references from your listener
-    public PowerupManager(ColorPartyPlugin plugin, Random random, Set<UUID> playersWithColorTrail) {
+    // The arena's world, see Arena.getWorldName()
+    private final String worldName;
+    private final int floorStartX; // -32 for the first arena
+    private final int floorStartZ;
+
+    // Constructor: pass in references from your arena
+    public PowerupManager(ColorPartyPlugin plugin, String worldName, Set<UUID> playersWithColorTrail,
+                          int floorStartX, int floorStartZ) {
         this.plugin = plugin;
-        this.random = random;
+        this.worldName = worldName;
         this.playersWithColorTrail = playersWithColorTrail;
+        this.floorStartX = floorStartX;
+        this.floorStartZ = floorStartZ;
+    }
+
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
     }
 
     // givePlayerOneUseAxe: "Leap Axe"
@@ -124,7 +135,7 @@ public class PowerupManager {
         if (beaconLoc == null) return;
         World world = beaconLoc.getWorld();
         if (world == null) return;
-        if (!ColorPartyPlugin.MINIGAME_WORLD_NAME.equals(world.getName())) return;
+        if (!worldName.equals(world.getName())) return;
 
         // Final local color reference
         final Material cowColor = safeColor;
@@ -141,9 +152,9 @@ public class PowerupManager {
         }
 
         // explosion effect after 1s
-        new BukkitRunnable() {
+        new TaskProfiler.ProfiledRunnable(plugin.getProfiler(), "powerup.color-cow") {
             @Override
-            public void run() {
+            protected void tick() {
                 if (!cowEntity.isDead()) {
                     Location finalLoc = cowEntity.getLocation();
                     world.playSound(finalLoc, Sound.ENTITY_GENERIC_EXPLODE, 1f, 1f);
@@ -153,17 +164,18 @@ public class PowerupManager {
                     int bx = finalLoc.getBlockX();
                     int bz = finalLoc.getBlockZ();
                     int radius = 3;
+                    FloorWriter.Batch batch = plugin.getFloorWriter().batch(world);
                     for (int x = bx - radius; x <= bx + radius; x++) {
                         for (int z = bz - radius; z <= bz + radius; z++) {
                             Location blockLoc = new Location(world, x, 120, z);
                             if (blockLoc.distance(finalLoc) <= radius + 0.5) {
-                                Block b = world.getBlockAt(x, 120, z);
-                                if (b.getType() != Material.AIR) {
-                                    b.setType(cowColor);
+                                if (plugin.getFloorWriter().getType(world, x, 120, z) != Material.AIR) {
+                                    batch.add(x, 120, z, cowColor);
                                 }
                             }
                         }
                     }
+                    batch.submit();
                 }
             }
         }.runTaskLater(plugin, 20L);
@@ -171,14 +183,11 @@ public class PowerupManager {
 
     // Teleport player to random spot on dance floor
     public void teleportPlayerRandomFloor(Player player) {
-        World cpWorld = Bukkit.getWorld(ColorPartyPlugin.MINIGAME_WORLD_NAME);
+        World cpWorld = Bukkit.getWorld(worldName);
         if (cpWorld == null) return;
-        int floorSize = 64;
-        int startX = -floorSize / 2;
-        int startZ = -floorSize / 2;
         int y = 121; // above floor
-        int randX = startX + random.nextInt(floorSize);
-        int randZ = startZ + random.nextInt(floorSize);
+        int randX = floorStartX + random.nextInt(FLOOR_SIZE);
+        int randZ = floorStartZ + random.nextInt(FLOOR_SIZE);
         Location target = new Location(cpWorld, randX + 0.5, y, randZ + 0.5);
         player.teleport(target);
         player.sendMessage(ChatColor.GREEN + "Teleported to a random tile!");
@@ -215,12 +224,12 @@ public class PowerupManager {
         player.playSound(player.getLocation(), Sound.ITEM_TRIDENT_RETURN, 1f, 1f);
 
         // Start a repeating task that updates the 3×3 glass beneath them
-        BukkitRunnable task = new BukkitRunnable() {
+        BukkitRunnable task = new TaskProfiler.ProfiledRunnable(plugin.getProfiler(), "powerup.magic-carpet") {
             // Track the last set of blocks that were turned into glass
             private final Set<Block> previousGlassBlocks = new HashSet<>();
 
             @Override
-            public void run() {
+            protected void tick() {
                 // If player is offline or no longer has carpet, stop
                 if (!player.isOnline() || !carpetPlayers.contains(player.getUniqueId())) {
                     clearPreviousGlass();
@@ -228,7 +237,7 @@ public class PowerupManager {
                     return;
                 }
 
-                World cpWorld = Bukkit.getWorld(ColorPartyPlugin.MINIGAME_WORLD_NAME);
+                World cpWorld = Bukkit.getWorld(worldName);
                 if (cpWorld == null) {
                     clearPreviousGlass();
                     this.cancel();
@@ -253,14 +262,14 @@ public class PowerupManager {
                         int blockZ = pz + dz;
 
                         // Ensure it's within the 64×64 floor region
-                        if (blockX < FLOOR_START_X || blockX >= FLOOR_START_X + FLOOR_SIZE) continue;
-                        if (blockZ < FLOOR_START_Z || blockZ >= FLOOR_START_Z + FLOOR_SIZE) continue;
+                        if (blockX < floorStartX || blockX >= floorStartX + FLOOR_SIZE) continue;
+                        if (blockZ < floorStartZ || blockZ >= floorStartZ + FLOOR_SIZE) continue;
 
                         Block b = cpWorld.getBlockAt(blockX, py, blockZ);
 
                         // Place glass ONLY if the block is AIR
-                        if (b.getType() == Material.AIR) {
-                            b.setType(Material.GLASS);
+                        if (plugin.getFloorWriter().getType(b) == Material.AIR) {
+                            plugin.getFloorWriter().set(b, Material.GLASS);
                             previousGlassBlocks.add(b);
                         }
                     }
@@ -271,8 +280,8 @@ public class PowerupManager {
                 // Remove glass from last iteration
                 for (Block b : previousGlassBlocks) {
                     // Double-check it is still glass
-                    if (b.getType() == Material.GLASS) {
-                        b.setType(Material.AIR);
+                    if (plugin.getFloorWriter().getType(b) == Material.GLASS) {
+                        plugin.getFloorWriter().set(b, Material.AIR);
                     }
                 }
                 previousGlassBlocks.clear();
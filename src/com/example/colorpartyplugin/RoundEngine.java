@@ -0,0 +1,213 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RoundEngine runs a game as one state machine driven by a single repeating task, instead
+ * of a chain of BukkitRunnables (countdown, silent delay, freeze countdown, post-freeze delay)
+ * that each re-check the game flags.
+ *
+ *   LOBBY -> COUNTDOWN -> BUILD -> CALL -> FREEZE -> INTERMISSION -> BUILD ... -> ENDED
+ *
+ * Each phase is entered with a length in ticks. The engine counts server ticks itself, so
+ * every phase starts and ends on an exact tick, calls Handler.onSecond() once per elapsed
+ * second and Handler.onPhaseEnd() when the time is up. The handler decides the next phase
+ * by calling enter(). Transitions are also reported to any TransitionHooks, e.g. for a HUD.
+ *
+ * The task only runs between start() and the end of the game (ENDED or LOBBY), and the time
+ * spent in the handler is added up per phase, see getPhaseNanos().
+ * Without a plugin there is no task: the owner advances the clock with step(), which is how
+ * GameSimulator runs games without a server.
+ * All methods must be called on the main thread (the simulating thread without a plugin).
+ */
+public class RoundEngine {
+
+    public enum Phase {
+        LOBBY, COUNTDOWN, BUILD, CALL, FREEZE, INTERMISSION, ENDED
+    }
+
+    /** The game logic for each phase, implemented by RoundRules. */
+    public interface Handler {
+        void onEnter(Phase phase);
+
+        // secondsElapsed is 1 on the first full second of the phase
+        default void onSecond(Phase phase, int secondsElapsed) {
+        }
+
+        // The phase's time is up, the handler must enter() the next phase
+        void onPhaseEnd(Phase phase);
+    }
+
+    /** Notified after every phase change. */
+    public interface TransitionHook {
+        void onTransition(Phase from, Phase to, long tick);
+    }
+
+    public static final int TICKS_PER_SECOND = 20;
+
+    private final Plugin plugin;
+    private final Handler handler;
+    private final List<TransitionHook> hooks = new ArrayList<>();
+
+    private Phase phase = Phase.LOBBY;
+    private long tick = 0;
+    private long phaseStartTick = 0;
+    private long phaseEndTick = -1;
+    private boolean running = false;
+    private BukkitTask task;
+
+    private final Map<Phase, long[]> phaseCost = new EnumMap<>(Phase.class);
+    // Time spent in nested timed() calls, so a phase change inside onPhaseEnd isn't counted twice
+    private long nestedNanos = 0;
+
+    // plugin null = virtual clock, see step()
+    public RoundEngine(Plugin plugin, Handler handler) {
+        this.plugin = plugin;
+        this.handler = handler;
+        for (Phase p : Phase.values()) {
+            // {nanos in the handler, ticks spent in the phase}
+            phaseCost.put(p, new long[2]);
+        }
+    }
+
+    public void addHook(TransitionHook hook) {
+        hooks.add(hook);
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    // Ticks since start()
+    public long getTick() {
+        return tick;
+    }
+
+    public long getPhaseStartTick() {
+        return phaseStartTick;
+    }
+
+    // Ticks until the current phase ends, -1 if it has no end
+    public long getTicksRemaining() {
+        return phaseEndTick < 0 ? -1 : phaseEndTick - tick;
+    }
+
+    // True from COUNTDOWN until the game ends
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts the tick task and enters the first phase
+    public void start(Phase first, int ticks) {
+        stopTask();
+        tick = 0;
+        for (long[] cost : phaseCost.values()) {
+            cost[0] = 0;
+            cost[1] = 0;
+        }
+        running = true;
+        if (plugin != null) {
+            Runnable timer = plugin instanceof ColorPartyPlugin colorParty
+                    ? colorParty.getProfiler().wrap("round-engine", this::tick) : this::tick;
+            task = Bukkit.getScheduler().runTaskTimer(plugin, timer, 1L, 1L);
+        }
+        enter(first, ticks);
+    }
+
+    // Switches to a phase that lasts ticks (-1 = until the next enter()). ENDED and LOBBY stop the task.
+    public void enter(Phase next, int ticks) {
+        Phase from = phase;
+        phase = next;
+        phaseStartTick = tick;
+        phaseEndTick = ticks < 0 ? -1 : tick + ticks;
+        if (next == Phase.ENDED || next == Phase.LOBBY) {
+            stopTask();
+        }
+        for (TransitionHook hook : hooks) {
+            hook.onTransition(from, next, tick);
+        }
+        timed(next, () -> handler.onEnter(next));
+    }
+
+    // Back to LOBBY without running any more phase logic, e.g. when the last player left
+    public void reset() {
+        stopTask();
+        Phase from = phase;
+        phase = Phase.LOBBY;
+        phaseEndTick = -1;
+        if (from != Phase.LOBBY) {
+            for (TransitionHook hook : hooks) {
+                hook.onTransition(from, Phase.LOBBY, tick);
+            }
+        }
+    }
+
+    // Advances the virtual clock by one tick, for an engine without a plugin
+    public void step() {
+        if (running) {
+            tick();
+        }
+    }
+
+    // Nanoseconds spent in the handler while in a phase, since start()
+    public long getPhaseNanos(Phase p) {
+        return phaseCost.get(p)[0];
+    }
+
+    public long getPhaseTicks(Phase p) {
+        return phaseCost.get(p)[1];
+    }
+
+    // One line per phase that was used, for the log
+    public String describeCost() {
+        StringBuilder sb = new StringBuilder();
+        for (Phase p : Phase.values()) {
+            long[] cost = phaseCost.get(p);
+            if (cost[1] == 0 && cost[0] == 0) continue;
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(p).append(' ').append(cost[1]).append(" ticks ")
+                    .append(String.format("%.2f", cost[0] / 1_000_000.0)).append(" ms");
+        }
+        return sb.toString();
+    }
+
+    private void tick() {
+        tick++;
+        Phase current = phase;
+        phaseCost.get(current)[1]++;
+        long elapsed = tick - phaseStartTick;
+        if (phaseEndTick >= 0 && tick >= phaseEndTick) {
+            timed(current, () -> handler.onPhaseEnd(current));
+        } else if (elapsed % TICKS_PER_SECOND == 0) {
+            timed(current, () -> handler.onSecond(current, (int) (elapsed / TICKS_PER_SECOND)));
+        }
+    }
+
+    private void timed(Phase p, Runnable action) {
+        long outerNested = nestedNanos;
+        nestedNanos = 0;
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            long total = System.nanoTime() - start;
+            phaseCost.get(p)[0] += total - nestedNanos;
+            nestedNanos = outerNested + total;
+        }
+    }
+
+    private void stopTask() {
+        running = false;
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Material;
+import org.bukkit.plugin.Plugin;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * RoundRules is the part of a game that doesn't depend on the world: which phase follows
+ * which and for how long, the round counter and freeze times, and the floor and safe color
+ * every round gets from the game's GameRandom. It is the RoundEngine handler of a game and
+ * tells a Game what happens; Arena plays that with real players and blocks, GameSimulator
+ * with virtual players on an in-memory floor.
+ *
+ *   COUNTDOWN -> BUILD (floor, 3s silent) -> CALL (freezeCount seconds) -> FREEZE
+ *             -> INTERMISSION -> next BUILD ... -> after round 25, or once nobody is left, ENDED
+ *
+ * The next round's variation is picked from the game's floor stream when the color is called,
+ * and the floor is generated on the executor while players run for the safe color (the
+ * plugin's background executor in an arena, the calling thread in the simulator). The repeat
+ * window is kept per game (FloorVariationRegistry.History), so with the same variations a seed
+ * always gets the same floors and safe colors.
+ * All methods must be called on the main thread (the simulating thread without a plugin).
+ */
+public class RoundRules implements RoundEngine.Handler {
+
+    public static final int MAX_ROUNDS = 25;
+
+    // Phase lengths in ticks
+    public static final int BUILD_TICKS = 60;              // 3s silent after the floor is placed
+    public static final int FREEZE_TICKS = 20;             // first second after the floor is removed
+    public static final int POST_FREEZE_TICKS = 65;        // next round starts 3.25 seconds after the freeze
+    public static final int FINAL_ROUND_DELAY_TICKS = 80;  // 4s after the last freeze before the winners
+
+    /** What the phases do to the players and the floor. */
+    public interface Game {
+        // On entering COUNTDOWN and once a second after that
+        default void onCountdown(int secondsLeft) {
+        }
+
+        // The countdown is over, round 1 comes next
+        void onGameStart();
+
+        // False once no more rounds should be played (the game ended, nobody is left)
+        boolean hasPlayersLeft();
+
+        // Round `round` begins on this floor; its safe color is called after BUILD_TICKS
+        void onRound(int round, Floor floor, int freezeCount);
+
+        // The safe color is called, players have freezeCount seconds to find it
+        void onCall(Material safeColor);
+
+        // Once a second while the color is called
+        default void onCallSecond(int secondsLeft) {
+        }
+
+        // Time is up: everything that isn't the safe color goes
+        void onFreeze(Material safeColor);
+
+        // The last round is over, whoever is still in wins
+        void onFinalRound();
+
+        // The game is over, whichever way it ended
+        default void onEnded() {
+        }
+    }
+
+    /** One round's floor: the layout, the variation it came from and the color that stays. */
+    public record Floor(FloorLayout layout, String variationId, Material safeColor) {
+        static final Floor FALLBACK = new Floor(FloorLayout.LIGHT_GRAY, "none", Material.LIGHT_GRAY_TERRACOTTA);
+    }
+
+    private final Plugin plugin;
+    private final Game game;
+    private final FloorVariationRegistry registry;
+    private final Executor executor;
+    private final RoundEngine engine;
+
+    // The variations this game picked recently, cleared by newGame() so a seed always picks the same floors
+    private final FloorVariationRegistry.History floorHistory = new FloorVariationRegistry.History();
+    private GameRandom random;
+    private int round = 0;
+    private int freezeCount = getFreezeCountForRound(1);
+    private int countdownSeconds = 5;
+    private Floor floor = Floor.FALLBACK;
+
+    // The next round's floor, generated on the executor. Only touched on the main thread.
+    private CompletableFuture<Floor> nextFloor;
+
+    // plugin null = virtual clock (RoundEngine.step()), and floor failures are thrown instead of logged
+    public RoundRules(Plugin plugin, Game game, FloorVariationRegistry registry, Executor executor) {
+        this.plugin = plugin;
+        this.game = game;
+        this.registry = registry;
+        this.executor = executor;
+        this.engine = new RoundEngine(plugin, this);
+    }
+
+    public RoundEngine getEngine() {
+        return engine;
+    }
+
+    // 0 before the first round
+    public int getRound() {
+        return round;
+    }
+
+    public int getFreezeCount() {
+        return freezeCount;
+    }
+
+    public Floor getFloor() {
+        return floor;
+    }
+
+    // A new game drawing from random. Nothing from an earlier game may decide its floors.
+    public void newGame(GameRandom random) {
+        engine.reset();
+        discardNextFloor();
+        floorHistory.clear();
+        this.random = random;
+        round = 0;
+        freezeCount = getFreezeCountForRound(1);
+        floor = Floor.FALLBACK;
+    }
+
+    public void startCountdown(int seconds) {
+        countdownSeconds = seconds;
+        engine.start(RoundEngine.Phase.COUNTDOWN, seconds * RoundEngine.TICKS_PER_SECOND);
+    }
+
+    // The game ended before its last round (everyone fell)
+    public void end() {
+        discardNextFloor();
+        engine.enter(RoundEngine.Phase.ENDED, -1);
+    }
+
+    // Stops the game where it is, e.g. when the last player left
+    public void stop() {
+        engine.reset();
+        discardNextFloor();
+        round = 0;
+    }
+
+    @Override
+    public void onEnter(RoundEngine.Phase phase) {
+        switch (phase) {
+            case COUNTDOWN -> game.onCountdown(countdownSeconds);
+            case BUILD -> {
+                if (round >= MAX_ROUNDS || !game.hasPlayersLeft()) {
+                    stop();
+                    return;
+                }
+                round++;
+                freezeCount = getFreezeCountForRound(round);
+                floor = takeNextFloor();
+                game.onRound(round, floor, freezeCount);
+            }
+            case CALL -> {
+                // Generate the next round's floor while players are running for this one
+                if (round < MAX_ROUNDS) {
+                    prepareNextFloor();
+                }
+                game.onCall(floor.safeColor());
+            }
+            case FREEZE -> game.onFreeze(floor.safeColor());
+            case ENDED -> game.onEnded();
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onSecond(RoundEngine.Phase phase, int secondsElapsed) {
+        if (phase == RoundEngine.Phase.COUNTDOWN) {
+            game.onCountdown(countdownSeconds - secondsElapsed);
+        } else if (phase == RoundEngine.Phase.CALL) {
+            game.onCallSecond(freezeCount - secondsElapsed + 1);
+        }
+    }
+
+    @Override
+    public void onPhaseEnd(RoundEngine.Phase phase) {
+        switch (phase) {
+            case COUNTDOWN -> {
+                game.onGameStart();
+                engine.enter(RoundEngine.Phase.BUILD, BUILD_TICKS);
+            }
+            // The freeze comes one second after the last "1..."
+            case BUILD -> engine.enter(RoundEngine.Phase.CALL, (freezeCount + 1) * RoundEngine.TICKS_PER_SECOND);
+            case CALL -> engine.enter(RoundEngine.Phase.FREEZE, FREEZE_TICKS);
+            case FREEZE -> engine.enter(RoundEngine.Phase.INTERMISSION,
+                    (round >= MAX_ROUNDS ? FINAL_ROUND_DELAY_TICKS : POST_FREEZE_TICKS) - FREEZE_TICKS);
+            case INTERMISSION -> {
+                if (round >= MAX_ROUNDS) {
+                    game.onFinalRound();
+                    engine.enter(RoundEngine.Phase.ENDED, -1);
+                } else if (!game.hasPlayersLeft()) {
+                    stop();
+                } else {
+                    engine.enter(RoundEngine.Phase.BUILD, BUILD_TICKS);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Freeze time logic, the rounds get progressively shorter
+    // Rounds 1–5 => 5, 6–10 => 4, 11–15 => 3, 16–20 => 2, 21–25 => 1
+    public static int getFreezeCountForRound(int round) {
+        if (round >= 21) return 1;
+        if (round >= 16) return 2;
+        if (round >= 11) return 3;
+        if (round >= 6)  return 4;
+        return 5;
+    }
+
+    // True for the rounds where the freeze time just went down
+    public static boolean isFreezeCountReduced(int round) {
+        return round > 1 && getFreezeCountForRound(round) < getFreezeCountForRound(round - 1);
+    }
+
+    // The prepared floor belongs to a game that is over
+    public void discardNextFloor() {
+        if (nextFloor != null) {
+            nextFloor.cancel(false);
+            nextFloor = null;
+        }
+    }
+
+    // Picks the next variation here and hands the generator and the safe color pick to the executor
+    private void prepareNextFloor() {
+        GameRandom game = random;
+        FloorVariation variation = registry.pick(game.floors(), floorHistory);
+        try {
+            nextFloor = CompletableFuture.supplyAsync(() -> generateFloor(variation, game), executor);
+        } catch (RejectedExecutionException | NullPointerException e) {
+            // Executor is shut down (plugin disabling) or not there, build it right here
+            nextFloor = CompletableFuture.completedFuture(generateFloor(variation, game));
+        }
+    }
+
+    // Returns the prepared floor, waiting for it only if the executor hasn't finished yet
+    // (or preparing it now for the first round of a game)
+    private Floor takeNextFloor() {
+        if (nextFloor == null) {
+            prepareNextFloor();
+        }
+        CompletableFuture<Floor> future = nextFloor;
+        nextFloor = null;
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            if (plugin == null) throw e;
+            plugin.getLogger().severe("Could not generate the next floor: " + e.getMessage());
+            return Floor.FALLBACK;
+        }
+    }
+
+    // Runs on the executor: the generators only fill a grid and don't touch the world.
+    // Several arenas may prepare at the same time, each uses its own streams. The main thread
+    // doesn't touch the floor streams until the result was taken (takeNextFloor()).
+    private static Floor generateFloor(FloorVariation variation, GameRandom game) {
+        FloorLayout layout = variation != null ? variation.generate(game.floors()) : null;
+        if (layout == null) {
+            layout = FloorLayout.LIGHT_GRAY;
+        }
+        // Pick safe color from the colors that are actually on the floor
+        return new Floor(layout, variation != null ? variation.getId() : "none", layout.pickColor(game.safeColor()));
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.colorpartyplugin;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TaskProfiler times every task the plugin schedules and every event handler it registers
+ * ("profiler" in config.yml), so a spike in tick time can be pinned on the effect that caused it.
+ *
+ * - Runnables passed to the scheduler are wrapped with wrap(name, runnable).
+ * - BukkitRunnables extend ProfiledRunnable and put their work in tick() instead of run().
+ * - Listeners are registered through registerEvents(), which registers each @EventHandler
+ *   method itself with an EventExecutor that times the call (named Listener.method).
+ *
+ * Each name has a log-linear histogram of call times (4 buckets per power of two, so quantiles
+ * are within 25%), plus count, total and max. Recording is lock-free (atomic counters), tasks on
+ * the floor worker threads can record too. Numbers are rolling: every log interval the current
+ * window becomes the previous one, and stats cover the previous and current window together.
+ * "/cp profile" shows them, and once per interval the busiest names go to the server log.
+ */
+public class TaskProfiler {
+
+    // 4 buckets per power of two of nanoseconds: 2 bits below the highest set bit
+    private static final int SUB_BITS = 2;
+    private static final int BUCKETS = 64 << SUB_BITS;
+
+    private final ColorPartyPlugin plugin;
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private BukkitTask logTask;
+
+    public TaskProfiler(ColorPartyPlugin plugin, boolean enabled) {
+        this.plugin = plugin;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Rotates the windows every intervalSeconds and logs the top names, 0 = rotate only on reset()
+    public void start(int intervalSeconds, int logTop) {
+        if (!enabled || intervalSeconds <= 0) return;
+        long ticks = intervalSeconds * 20L;
+        logTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            String line = summary(logTop);
+            if (!line.isEmpty()) {
+                plugin.getLogger().info("Tick time, last " + intervalSeconds + "s: " + line);
+            }
+            for (Timer timer : timers.values()) {
+                timer.rotate();
+            }
+        }, ticks, ticks);
+    }
+
+    public void stop() {
+        if (logTask != null) {
+            logTask.cancel();
+            logTask = null;
+        }
+    }
+
+    // Adds one call of the task or handler called name
+    public void record(String name, long nanos) {
+        timers.computeIfAbsent(name, Timer::new).record(nanos);
+    }
+
+    // runnable, timed under name
+    public Runnable wrap(String name, Runnable runnable) {
+        if (!enabled) return runnable;
+        Timer timer = timers.computeIfAbsent(name, Timer::new);
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                runnable.run();
+            } finally {
+                timer.record(System.nanoTime() - start);
+            }
+        };
+    }
+
+    // Registers the listener's @EventHandler methods like PluginManager.registerEvents(), each one timed
+    public void registerEvents(Listener listener) {
+        if (!enabled) {
+            plugin.getServer().getPluginManager().registerEvents(listener, plugin);
+            return;
+        }
+        for (Method method : listener.getClass().getDeclaredMethods()) {
+            EventHandler handler = method.getAnnotation(EventHandler.class);
+            if (handler == null || method.getParameterCount() != 1
+                    || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                continue;
+            }
+            Class<? extends Event> eventClass = method.getParameterTypes()[0].asSubclass(Event.class);
+            method.setAccessible(true);
+            Timer timer = timers.computeIfAbsent(listener.getClass().getSimpleName() + "." + method.getName(), Timer::new);
+            EventExecutor executor = (target, event) -> {
+                // Also called for subclasses of events registered by other listeners
+                if (!eventClass.isInstance(event)) return;
+                long start = System.nanoTime();
+                try {
+                    method.invoke(target, event);
+                } catch (InvocationTargetException e) {
+                    throw new EventException(e.getCause());
+                } catch (Throwable t) {
+                    throw new EventException(t);
+                } finally {
+                    timer.record(System.nanoTime() - start);
+                }
+            };
+            plugin.getServer().getPluginManager().registerEvent(eventClass, listener, handler.priority(), executor,
+                    plugin, handler.ignoreCancelled());
+        }
+    }
+
+    // Clears every window, e.g. before reproducing a spike
+    public void reset() {
+        for (Timer timer : timers.values()) {
+            timer.rotate();
+            timer.rotate();
+        }
+    }
+
+    // Every name with calls, busiest (total time) first
+    public List<Stats> getStats() {
+        List<Stats> stats = new ArrayList<>();
+        for (Timer timer : timers.values()) {
+            Stats s = timer.stats();
+            if (s.calls() > 0) {
+                stats.add(s);
+            }
+        }
+        stats.sort(Comparator.comparingLong(Stats::totalNanos).reversed());
+        return stats;
+    }
+
+    // The top names on one line, empty if nothing ran
+    public String summary(int top) {
+        List<Stats> stats = getStats();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(top, stats.size()); i++) {
+            if (i > 0) sb.append(", ");
+            Stats s = stats.get(i);
+            sb.append(String.format(Locale.ROOT, "%s %.1fms (p50 %s, p99 %s, max %s)", s.name(),
+                    s.totalNanos() / 1e6, formatNanos(s.p50()), formatNanos(s.p99()), formatNanos(s.max())));
+        }
+        return sb.toString();
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos >= 1_000_000) return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+        return String.format(Locale.ROOT, "%.0fus", nanos / 1e3);
+    }
+
+    public record Stats(String name, long calls, long totalNanos, long p50, long p99, long max) {
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < (1L << SUB_BITS)) return (int) Math.max(0, nanos);
+        int log = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (log - SUB_BITS)) & ((1 << SUB_BITS) - 1);
+        return (log << SUB_BITS) | sub;
+    }
+
+    // Largest value that falls into bucket i
+    static long bucketUpperBound(int i) {
+        if (i < (1 << SUB_BITS)) return i;
+        int log = i >>> SUB_BITS;
+        int sub = i & ((1 << SUB_BITS) - 1);
+        long width = 1L << (log - SUB_BITS);
+        return (((1L << SUB_BITS) | sub) << (log - SUB_BITS)) + width - 1;
+    }
+
+    /** The rolling numbers of one task or handler name. */
+    static final class Timer {
+        private final String name;
+        private volatile Window current = new Window();
+        private volatile Window previous = new Window();
+
+        Timer(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos) {
+            current.record(nanos);
+        }
+
+        // A call racing with this lands in the window that was current, which is fine for stats
+        void rotate() {
+            previous = current;
+            current = new Window();
+        }
+
+        Stats stats() {
+            Window a = previous;
+            Window b = current;
+            long calls = a.calls.get() + b.calls.get();
+            long total = a.total.get() + b.total.get();
+            long max = Math.max(a.max.get(), b.max.get());
+            return new Stats(name, calls, total, quantile(a, b, calls, 0.50, max), quantile(a, b, calls, 0.99, max), max);
+        }
+
+        private static long quantile(Window a, Window b, long calls, double q, long max) {
+            if (calls == 0) return 0;
+            long rank = (long) Math.ceil(q * calls);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += a.buckets.get(i) + b.buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+    }
+
+    private static final class Window {
+        final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong total = new AtomicLong();
+        final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            buckets.incrementAndGet(bucket(nanos));
+            calls.incrementAndGet();
+            total.addAndGet(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * A BukkitRunnable whose runs are timed under a name. Put the work in tick(), cancel(),
+     * runTaskTimer() etc. work as usual. With a null profiler nothing is timed.
+     */
+    public abstract static class ProfiledRunnable extends BukkitRunnable {
+        private final TaskProfiler profiler;
+        private final String name;
+
+        protected ProfiledRunnable(TaskProfiler profiler, String name) {
+            this.profiler = profiler;
+            this.name = name;
+        }
+
+        @Override
+        public final void run() {
+            if (profiler == null || !profiler.enabled) {
+                tick();
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                tick();
+            } finally {
+                profiler.record(name, System.nanoTime() - start);
+            }
+        }
+
+        protected abstract void tick();
+    }
+}
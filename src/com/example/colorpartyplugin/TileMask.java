@@ -0,0 +1,60 @@
+package com.example.colorpartyplugin;
+
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+
+/**
+ * TileMask helpers for 64x64 floor bitsets: a long[64] where word localX holds one bit per
+ * localZ, so tile index localX * 64 + localZ is bit (index & 63) of word (index >>> 6).
+ * FloorLayout and FloorState keep one mask per color; combining masks (e.g. "every tile
+ * that is not the safe color") is a loop over 64 words instead of 4096 tiles.
+ */
+public final class TileMask {
+
+    public static final int WORDS = FloorLayout.SIZE;
+
+    private TileMask() {
+    }
+
+    public static int count(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Calls action with the tile index of every set bit, in index order
+    public static void forEach(long[] mask, IntConsumer action) {
+        for (int w = 0; w < mask.length; w++) {
+            long word = mask[w];
+            while (word != 0) {
+                action.accept((w << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    // A uniformly random set tile, or -1 if the mask is empty
+    public static int pickRandom(long[] mask, RandomGenerator random) {
+        return pickRandom(mask, count(mask), random);
+    }
+
+    // Same, with the number of set bits already known (e.g. a maintained per-color count)
+    public static int pickRandom(long[] mask, int count, RandomGenerator random) {
+        if (count <= 0) return -1;
+        int remaining = random.nextInt(count);
+        for (int w = 0; w < mask.length; w++) {
+            int bits = Long.bitCount(mask[w]);
+            if (remaining < bits) {
+                long word = mask[w];
+                while (remaining-- > 0) {
+                    word &= word - 1; // clear the lowest set bit
+                }
+                return (w << 6) | Long.numberOfTrailingZeros(word);
+            }
+            remaining -= bits;
+        }
+        return -1;
+    }
+}